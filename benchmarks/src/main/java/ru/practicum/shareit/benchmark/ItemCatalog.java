@@ -0,0 +1,135 @@
+package ru.practicum.shareit.benchmark;
+
+import ru.practicum.shareit.item.model.Item;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+public final class ItemCatalog {
+
+    private static final String[] SYLLABLES = {
+            "ак", "ба", "ве", "го", "да", "ель", "жи", "за", "ин", "ка", "ло", "ма", "не", "он", "пер",
+            "ра", "ст", "то", "ул", "фо", "ха", "це", "чи", "ша", "ык", "эл", "юр", "ят", "дре", "вёр"
+    };
+    private static final int VOCABULARY_SIZE = 20_000;
+    private static final double ZIPF_EXPONENT = 1.07;
+    private static final double AVAILABLE_SHARE = 0.9;
+    private static final int QUERY_COUNT = 1024;
+
+    private final String[] vocabulary;
+    private final double[] cumulative;
+    private final Random random;
+    private final List<Item> items;
+
+    public ItemCatalog(int size, long seed) {
+        this.random = new Random(seed);
+        this.vocabulary = buildVocabulary();
+        this.cumulative = buildZipf();
+        this.items = new ArrayList<>(size);
+        for (long id = 1; id <= size; id++) {
+            items.add(Item.builder()
+                    .id(id)
+                    .name(capitalize(words(1 + random.nextInt(3))))
+                    .description(capitalize(words(4 + random.nextInt(13))))
+                    .available(random.nextDouble() < AVAILABLE_SHARE)
+                    .build());
+        }
+    }
+
+    public List<Item> getItems() {
+        return items;
+    }
+
+    public String[] queries() {
+        String[] queries = new String[QUERY_COUNT];
+        for (int i = 0; i < QUERY_COUNT; i++) {
+            String word = word();
+            switch (i % 3) {
+                case 0:
+                    queries[i] = word;
+                    break;
+                case 1:
+                    queries[i] = word.substring(0, Math.min(word.length(), 4));
+                    break;
+                default:
+                    Item item = items.get(random.nextInt(items.size()));
+                    queries[i] = item.getName().split(" ")[0] + " " + item.getDescription().split(" ")[1];
+            }
+        }
+        return queries;
+    }
+
+    public String[] misspelledQueries() {
+        String[] queries = new String[QUERY_COUNT];
+        for (int i = 0; i < QUERY_COUNT; i++) {
+            StringBuilder word = new StringBuilder(word());
+            int position = random.nextInt(word.length());
+            switch (i % 3) {
+                case 0:
+                    word.setCharAt(position, 'о');
+                    break;
+                case 1:
+                    word.deleteCharAt(position);
+                    break;
+                default:
+                    word.insert(position, word.charAt(position));
+            }
+            queries[i] = word.toString();
+        }
+        return queries;
+    }
+
+    private String words(int count) {
+        StringBuilder text = new StringBuilder();
+        for (int i = 0; i < count; i++) {
+            if (i > 0) {
+                text.append(' ');
+            }
+            text.append(word());
+        }
+        return text.toString();
+    }
+
+    private String word() {
+        int index = Arrays.binarySearch(cumulative, random.nextDouble());
+        return vocabulary[Math.min(index < 0 ? -index - 1 : index, VOCABULARY_SIZE - 1)];
+    }
+
+    private String[] buildVocabulary() {
+        String[] words = new String[VOCABULARY_SIZE];
+        Set<String> seen = new HashSet<>();
+        int i = 0;
+        while (i < VOCABULARY_SIZE) {
+            StringBuilder word = new StringBuilder();
+            int syllables = 2 + random.nextInt(3);
+            for (int j = 0; j < syllables; j++) {
+                word.append(SYLLABLES[random.nextInt(SYLLABLES.length)]);
+            }
+            if (seen.add(word.toString())) {
+                words[i++] = word.toString();
+            }
+        }
+        return words;
+    }
+
+    private double[] buildZipf() {
+        double[] weights = new double[VOCABULARY_SIZE];
+        double total = 0;
+        for (int rank = 0; rank < VOCABULARY_SIZE; rank++) {
+            total += 1 / Math.pow(rank + 1, ZIPF_EXPONENT);
+            weights[rank] = total;
+        }
+        for (int rank = 0; rank < VOCABULARY_SIZE; rank++) {
+            weights[rank] /= total;
+        }
+        return weights;
+    }
+
+    private static String capitalize(String text) {
+        return Character.toUpperCase(text.charAt(0)) + text.substring(1);
+    }
+}
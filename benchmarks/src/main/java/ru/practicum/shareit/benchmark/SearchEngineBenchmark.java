@@ -0,0 +1,70 @@
+package ru.practicum.shareit.benchmark;
+
+import org.openjdk.jmh.annotations.*;
+import ru.practicum.shareit.item.search.InvertedIndexItemSearchEngine;
+import ru.practicum.shareit.item.search.ItemSearchEngine;
+import ru.practicum.shareit.item.search.ItemSearchHit;
+import ru.practicum.shareit.item.search.SegmentedItemSearchEngine;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.AverageTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xms6g", "-Xmx6g"})
+public class SearchEngineBenchmark {
+
+    private static final int PAGE_SIZE = 20;
+
+    @Param({"10000", "100000", "1000000"})
+    private int catalogSize;
+
+    @Param({"index", "segmented"})
+    private String engine;
+
+    private ItemSearchEngine searchEngine;
+    private String[] queries;
+    private String[] misspelledQueries;
+    private int cursor;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        ItemCatalog catalog = new ItemCatalog(catalogSize, 42);
+        searchEngine = "segmented".equals(engine)
+                ? new SegmentedItemSearchEngine(0)
+                : new InvertedIndexItemSearchEngine();
+        searchEngine.index(catalog.getItems());
+        queries = catalog.queries();
+        misspelledQueries = catalog.misspelledQueries();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        if (searchEngine instanceof SegmentedItemSearchEngine) {
+            ((SegmentedItemSearchEngine) searchEngine).shutdown();
+        }
+    }
+
+    @Benchmark
+    public List<ItemSearchHit> search() {
+        return searchEngine.search(queries[next()], 0, PAGE_SIZE);
+    }
+
+    @Benchmark
+    public List<ItemSearchHit> searchSecondPage() {
+        return searchEngine.search(queries[next()], PAGE_SIZE, PAGE_SIZE);
+    }
+
+    @Benchmark
+    public List<ItemSearchHit> searchFuzzy() {
+        return searchEngine.searchFuzzy(misspelledQueries[next()], 0, PAGE_SIZE);
+    }
+
+    private int next() {
+        cursor = (cursor + 1) & (queries.length - 1);
+        return cursor;
+    }
+}
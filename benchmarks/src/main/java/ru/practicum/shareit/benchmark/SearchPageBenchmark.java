@@ -0,0 +1,76 @@
+package ru.practicum.shareit.benchmark;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.*;
+import ru.practicum.shareit.item.dto.ItemSearchPage;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.item.search.InvertedIndexItemSearchEngine;
+import ru.practicum.shareit.item.search.ItemSearchEngine;
+import ru.practicum.shareit.item.search.SearchResultCache;
+import ru.practicum.shareit.item.service.ItemSearchPageAssembler;
+
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.AverageTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xms6g", "-Xmx6g"})
+public class SearchPageBenchmark {
+
+    private static final int PAGE_SIZE = 20;
+
+    @Param({"10000", "100000", "1000000"})
+    private int catalogSize;
+
+    @Param({"false", "true"})
+    private boolean cacheEnabled;
+
+    private ItemSearchPageAssembler pageAssembler;
+    private String[] queries;
+    private int cursor;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        ItemCatalog catalog = new ItemCatalog(catalogSize, 42);
+        ItemSearchEngine searchEngine = new InvertedIndexItemSearchEngine();
+        searchEngine.index(catalog.getItems());
+        SearchResultCache searchResultCache = new SearchResultCache(new SimpleMeterRegistry(), cacheEnabled, 16L << 20);
+        Map<Long, Item> itemsById = catalog.getItems().stream()
+                .collect(Collectors.toMap(Item::getId, Function.identity()));
+        pageAssembler = new ItemSearchPageAssembler(searchEngine, searchResultCache, inMemoryRepository(itemsById));
+        queries = catalog.queries();
+    }
+
+    // Вещи берутся из памяти, чтобы замер не включал базу данных: сборке страницы нужен только findAllById
+    private static ItemRepository inMemoryRepository(Map<Long, Item> itemsById) {
+        return (ItemRepository) Proxy.newProxyInstance(ItemRepository.class.getClassLoader(),
+                new Class<?>[]{ItemRepository.class}, (proxy, method, args) -> {
+                    if (!method.getName().equals("findAllById")) {
+                        throw new UnsupportedOperationException(method.getName());
+                    }
+                    List<Item> items = new ArrayList<>();
+                    for (Object id : (Iterable<?>) args[0]) {
+                        items.add(itemsById.get(id));
+                    }
+                    items.removeIf(Objects::isNull);
+                    return items;
+                });
+    }
+
+    // Тот же путь, что и ItemServiceImpl.searchItem: кэш результатов, поиск и сборка страницы
+    @Benchmark
+    public ItemSearchPage searchPage() {
+        cursor = (cursor + 1) & (queries.length - 1);
+        return pageAssembler.search(queries[cursor], 0, PAGE_SIZE);
+    }
+}
@@ -71,4 +71,15 @@ public class BookingClient extends BaseClient {
             return get(ownerPath + "?state={state}&size={size}", userId, parameters);
         }
     }
-}
\ No newline at end of file
+
+    public ResponseEntity<Object> getUserBookings(long userId, String state, String cursor, Integer size, boolean isOwner) {
+        String ownerPath = isOwner ? "/owner" : "";
+        Map<String, Object> parameters = Map.of(
+                "state", state,
+                "cursor", cursor,
+                "size", size
+        );
+
+        return get(ownerPath + "?state={state}&cursor={cursor}&size={size}", userId, parameters);
+    }
+}
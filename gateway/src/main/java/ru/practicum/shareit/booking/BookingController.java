@@ -50,8 +50,12 @@ public class BookingController {
     public ResponseEntity<Object> getAllBookingsUser(@RequestHeader(USER_ID) long userId,
                                                      @RequestParam(defaultValue = "ALL") String state,
                                                      @Valid @RequestParam(defaultValue = "1") @Min(1) Integer from,
-                                                     @Valid @RequestParam(defaultValue = "20") @Min(1) @Max(20) Integer size) {
+                                                     @Valid @RequestParam(defaultValue = "20") @Min(1) @Max(20) Integer size,
+                                                     @RequestParam(required = false) String cursor) {
         log.info("все бронирования пользователя с userId {} получены", userId);
+        if (cursor != null) {
+            return bookingClient.getUserBookings(userId, state, cursor, size, false);
+        }
         return bookingClient.getUserBookings(userId, state, from, size, false);
     }
 
@@ -59,8 +63,12 @@ public class BookingController {
     public ResponseEntity<Object> getAllItemsUser(@RequestHeader(USER_ID) long userId,
                                                   @RequestParam(defaultValue = "ALL") String state,
                                                   @Valid @RequestParam(defaultValue = "1") @Min(1) Integer from,
-                                                  @Valid @RequestParam(defaultValue = "20") @Min(1) @Max(20) Integer size) {
+                                                  @Valid @RequestParam(defaultValue = "20") @Min(1) @Max(20) Integer size,
+                                                  @RequestParam(required = false) String cursor) {
         log.info("получены все бронирования собственника с userId {}, на его вещи", userId);
+        if (cursor != null) {
+            return bookingClient.getUserBookings(userId, state, cursor, size, true);
+        }
         return bookingClient.getUserBookings(userId, state, from, size, true);
     }
 }
@@ -46,12 +46,36 @@ public class ItemClient extends BaseClient {
         return get("?from={from}&size={size}", userId, parameters);
     }
 
-    public ResponseEntity<Object> findItem(long userId, String text) {
+    public ResponseEntity<Object> findItem(long userId, String text, Integer from, Integer size, Boolean fuzzy) {
         Map<String, Object> parameters = Map.of(
-                "text", text
+                "text", text,
+                "from", from,
+                "size", size,
+                "fuzzy", fuzzy
+        );
+
+        return get("/search?text={text}&from={from}&size={size}&fuzzy={fuzzy}", userId, parameters);
+    }
+
+    public ResponseEntity<Object> suggestItemNames(long userId, String prefix, Integer size) {
+        Map<String, Object> parameters = Map.of(
+                "prefix", prefix,
+                "size", size
+        );
+
+        return get("/suggest?prefix={prefix}&size={size}", userId, parameters);
+    }
+
+    public ResponseEntity<Object> getComments(long itemId, long userId, String cursor, Integer size) {
+        if (cursor == null) {
+            return get("/" + itemId + "/comments?size={size}", userId, Map.of("size", size));
+        }
+        Map<String, Object> parameters = Map.of(
+                "cursor", cursor,
+                "size", size
         );
 
-        return get("/search?text={text}", userId, parameters);
+        return get("/" + itemId + "/comments?cursor={cursor}&size={size}", userId, parameters);
     }
 
     public ResponseEntity<Object> addComment(long itemId, long userId, CommentDtoInput commentDtoInput) {
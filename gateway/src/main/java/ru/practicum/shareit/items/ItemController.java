@@ -52,13 +52,32 @@ public class ItemController {
         return itemClient.getUserAllItems(userId, from, size);
     }
 
+    // fuzzy=true - поиск с опечатками, поведение зависит от поискового движка сервера (см. ItemController сервера)
     @GetMapping("/search")
     public ResponseEntity<Object> searchItem(@RequestHeader(USER_ID) Long userId,
                                              @RequestParam(name = "text") String text,
                                              @PositiveOrZero @RequestParam(defaultValue = "0") Integer from,
-                                             @Positive @RequestParam(defaultValue = "20") Integer size) {
-        log.info("найдены вещи, в названии или описании которых присутствует слово text {}", text);
-        return itemClient.findItem(userId, text);
+                                             @Positive @RequestParam(defaultValue = "20") Integer size,
+                                             @RequestParam(defaultValue = "false") Boolean fuzzy) {
+        log.info("найдены вещи, в названии или описании которых присутствует слово text {}, fuzzy {}", text, fuzzy);
+        return itemClient.findItem(userId, text, from, size, fuzzy);
+    }
+
+    @GetMapping("/suggest")
+    public ResponseEntity<Object> suggestItemNames(@RequestHeader(USER_ID) Long userId,
+                                                   @RequestParam(name = "prefix") String prefix,
+                                                   @RequestParam(defaultValue = "10") @Min(1) @Max(10) Integer size) {
+        log.info("подсказки названий вещей для префикса prefix {}", prefix);
+        return itemClient.suggestItemNames(userId, prefix, size);
+    }
+
+    @GetMapping("/{itemId}/comments")
+    public ResponseEntity<Object> getComments(@PathVariable long itemId,
+                                              @RequestHeader(USER_ID) long userId,
+                                              @RequestParam(required = false) String cursor,
+                                              @RequestParam(defaultValue = "10") @Min(1) @Max(50) Integer size) {
+        log.info("вернули комментарии к вещи с itemId {} для пользователя с userId {}, cursor {}", itemId, userId, cursor);
+        return itemClient.getComments(itemId, userId, cursor, size);
     }
 
     @PostMapping("/{itemId}/comment")
@@ -1,6 +1,7 @@
 package ru.practicum.shareit.booking.controller;
 
 import lombok.AllArgsConstructor;
+import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
 import ru.practicum.shareit.booking.dto.BookingDtoRequest;
@@ -8,6 +9,7 @@ import ru.practicum.shareit.booking.dto.BookingDtoResp;
 import ru.practicum.shareit.booking.mapper.BookingMapper;
 import ru.practicum.shareit.booking.model.Booking;
 import ru.practicum.shareit.booking.service.BookingService;
+import ru.practicum.shareit.pagination.CursorPage;
 
 import javax.validation.Valid;
 import javax.validation.constraints.Max;
@@ -21,6 +23,7 @@ import java.util.stream.Collectors;
 @Validated
 public class BookingController {
     private static final String USER_ID = "X-Sharer-User-Id";
+    private static final String NEXT_CURSOR = "X-Next-Cursor";
 
     private final BookingService bookingService;
 
@@ -46,22 +49,40 @@ public class BookingController {
     }
 
     @GetMapping
-    public List<BookingDtoResp> getAllBookingsUser(@RequestHeader(USER_ID) long userId,
-                                                   @RequestParam(defaultValue = "ALL") String state,
-                                                   @Valid @RequestParam(defaultValue = "1") @Min(1) Integer from,
-                                                   @Valid @RequestParam(defaultValue = "20") @Min(1) @Max(20) Integer size) {
+    public ResponseEntity<List<BookingDtoResp>> getAllBookingsUser(@RequestHeader(USER_ID) long userId,
+                                                                   @RequestParam(defaultValue = "ALL") String state,
+                                                                   @Valid @RequestParam(defaultValue = "1") @Min(1) Integer from,
+                                                                   @Valid @RequestParam(defaultValue = "20") @Min(1) @Max(20) Integer size,
+                                                                   @RequestParam(required = false) String cursor) {
+        if (cursor != null) {
+            return toResponse(bookingService.getUserBookings(userId, state, cursor, size));
+        }
         List<Booking> bookings = bookingService.getUserBookings(userId, state, from, size);
-        return bookings.stream()
-                .map(BookingMapper::toResponse)
-                .collect(Collectors.toList());
+        return ResponseEntity.ok(toResponse(bookings));
     }
 
     @GetMapping("/owner")
-    public List<BookingDtoResp> getAllItemsUser(@RequestHeader(USER_ID) long userId,
-                                                @RequestParam(defaultValue = "ALL") String state,
-                                                @Valid @RequestParam(defaultValue = "1") @Min(1) Integer from,
-                                                @Valid @RequestParam(defaultValue = "20") @Min(1) @Max(20) Integer size) {
+    public ResponseEntity<List<BookingDtoResp>> getAllItemsUser(@RequestHeader(USER_ID) long userId,
+                                                                @RequestParam(defaultValue = "ALL") String state,
+                                                                @Valid @RequestParam(defaultValue = "1") @Min(1) Integer from,
+                                                                @Valid @RequestParam(defaultValue = "20") @Min(1) @Max(20) Integer size,
+                                                                @RequestParam(required = false) String cursor) {
+        if (cursor != null) {
+            return toResponse(bookingService.getUserItems(userId, state, cursor, size));
+        }
         List<Booking> bookings = bookingService.getUserItems(userId, state, from, size);
+        return ResponseEntity.ok(toResponse(bookings));
+    }
+
+    private static ResponseEntity<List<BookingDtoResp>> toResponse(CursorPage<Booking> page) {
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+        if (page.getNextCursor() != null) {
+            response.header(NEXT_CURSOR, page.getNextCursor());
+        }
+        return response.body(toResponse(page.getItems()));
+    }
+
+    private static List<BookingDtoResp> toResponse(List<Booking> bookings) {
         return bookings.stream()
                 .map(BookingMapper::toResponse)
                 .collect(Collectors.toList());
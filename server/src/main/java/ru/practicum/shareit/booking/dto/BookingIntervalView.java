@@ -0,0 +1,16 @@
+package ru.practicum.shareit.booking.dto;
+
+import java.time.LocalDateTime;
+
+public interface BookingIntervalView {
+
+    Long getId();
+
+    Long getBookerId();
+
+    String getStatus();
+
+    LocalDateTime getBookingStart();
+
+    LocalDateTime getBookingEnd();
+}
@@ -0,0 +1,20 @@
+package ru.practicum.shareit.booking.dto;
+
+import java.time.LocalDateTime;
+
+public interface ItemBookingView {
+
+    Long getItemId();
+
+    Long getId();
+
+    Long getBookerId();
+
+    String getStatus();
+
+    LocalDateTime getBookingStart();
+
+    LocalDateTime getBookingEnd();
+
+    Integer getPast();
+}
@@ -0,0 +1,58 @@
+package ru.practicum.shareit.booking.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import ru.practicum.shareit.booking.enums.BookingStatus;
+
+import javax.persistence.*;
+import java.time.LocalDateTime;
+
+@Entity
+@Table(name = "item_booking_summaries")
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class ItemBookingSummary {
+    @Id
+    @Column(name = "item_id")
+    private long itemId;
+
+    @Column(name = "last_booking_id")
+    private Long lastBookingId;
+
+    @Column(name = "last_booker_id")
+    private Long lastBookerId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "last_status")
+    private BookingStatus lastStatus;
+
+    @Column(name = "next_booking_id")
+    private Long nextBookingId;
+
+    @Column(name = "next_booker_id")
+    private Long nextBookerId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "next_status")
+    private BookingStatus nextStatus;
+
+    @Column(name = "next_start")
+    private LocalDateTime nextStart;
+
+    @Column(name = "current_booking_id")
+    private Long currentBookingId;
+
+    @Column(name = "current_booker_id")
+    private Long currentBookerId;
+
+    @Column(name = "current_end")
+    private LocalDateTime currentEnd;
+
+    public boolean isStale(LocalDateTime now) {
+        return nextStart != null && !nextStart.isAfter(now) || currentEnd != null && !currentEnd.isAfter(now);
+    }
+}
@@ -1,45 +1,51 @@
 package ru.practicum.shareit.booking.repository;
 
-import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
-import ru.practicum.shareit.booking.enums.BookingStatus;
+import org.springframework.data.jpa.repository.Query;
+import ru.practicum.shareit.booking.dto.BookingIntervalView;
+import ru.practicum.shareit.booking.dto.ItemBookingView;
 import ru.practicum.shareit.booking.model.Booking;
-import ru.practicum.shareit.user.model.User;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
-
-public interface BookingRepository extends JpaRepository<Booking, Long> {
-
-    List<Booking> findAllByBookingUserOrderByStartDesc(User user, Pageable pageable);
-
-    List<Booking> findAllByBookingUserAndStartIsBeforeAndEndIsAfterOrderByStart(User user,
-                                                                                LocalDateTime now1, LocalDateTime now2,
-                                                                                Pageable pageable);
-
-    List<Booking> findAllByBookingUserAndStartIsAfterOrderByStartDesc(User user, LocalDateTime now, Pageable pageable);
-
-    List<Booking> findAllByBookingUserAndEndIsBeforeOrderByStartDesc(User user, LocalDateTime now, Pageable pageable);
-
-    List<Booking> findAllByBookingUserAndStatusEqualsOrderByStartDesc(User user, BookingStatus status, Pageable pageable);
-
-    List<Booking> findAllByItemOwnerOrderByStartDesc(User user, Pageable pageable);
-
-    List<Booking> findAllByItemOwnerAndStartIsBeforeAndEndIsAfterOrderByStart(User user,
-                                                                              LocalDateTime now1, LocalDateTime now2,
-                                                                              Pageable pageable);
-
-    List<Booking> findAllByItemOwnerAndStartIsAfterOrderByStartDesc(User user, LocalDateTime now, Pageable pageable);
-
-    List<Booking> findAllByItemOwnerAndEndIsBeforeOrderByStartDesc(User user, LocalDateTime now, Pageable pageable);
-
-    List<Booking> findAllByItemOwnerAndStatusEqualsOrderByStartDesc(User user, BookingStatus status, Pageable pageable);
-
-    Booking findFirstByItemIdAndStartIsBeforeOrStartEqualsOrderByStartDesc(long itemId,
-                                                                           LocalDateTime now1, LocalDateTime now2);
-
-    Booking findFirstByItemIdAndStartIsAfterOrderByStart(long itemId, LocalDateTime now);
-
-    Booking findFirstByBookingUserIdAndItemIdAndEndIsBeforeOrderByEndDesc(long userId, long itemId, LocalDateTime now);
+import java.util.Optional;
+
+public interface BookingRepository extends JpaRepository<Booking, Long>, BookingStateRepository {
+
+    @Override
+    @EntityGraph(attributePaths = "item")
+    Optional<Booking> findById(Long id);
+
+    boolean existsByBookingUserIdAndItemIdAndEndIsBefore(long userId, long itemId, LocalDateTime now);
+
+    @Query(value = "SELECT ranked.item_id AS itemId, ranked.id AS id, ranked.booking_user_id AS bookerId, " +
+            "ranked.status AS status, ranked.data_start AS bookingStart, ranked.data_end AS bookingEnd, ranked.past AS past " +
+            "FROM (SELECT b.item_id, b.id, b.booking_user_id, b.status, b.data_start, b.data_end, " +
+            "CASE WHEN b.data_start <= :now THEN 1 ELSE 0 END AS past, " +
+            "ROW_NUMBER() OVER (PARTITION BY b.item_id, CASE WHEN b.data_start <= :now THEN 1 ELSE 0 END " +
+            "ORDER BY CASE WHEN b.data_start <= :now THEN b.data_start END DESC, b.data_start) AS booking_rank " +
+            "FROM bookings AS b " +
+            "WHERE b.item_id IN (:itemIds)) AS ranked " +
+            "WHERE ranked.booking_rank = 1", nativeQuery = true)
+    List<ItemBookingView> findLastAndNextByItemIds(Collection<Long> itemIds, LocalDateTime now);
+
+    @Query(value = "SELECT ranked.item_id AS itemId, ranked.id AS id, ranked.booking_user_id AS bookerId, " +
+            "ranked.status AS status, ranked.data_start AS bookingStart, ranked.data_end AS bookingEnd, 1 AS past " +
+            "FROM (SELECT b.item_id, b.id, b.booking_user_id, b.status, b.data_start, b.data_end, " +
+            "ROW_NUMBER() OVER (PARTITION BY b.item_id ORDER BY b.data_start DESC) AS booking_rank " +
+            "FROM bookings AS b " +
+            "WHERE b.item_id IN (:itemIds) " +
+            "AND b.data_start <= :now AND b.data_end > :now AND b.status <> 'REJECTED') AS ranked " +
+            "WHERE ranked.booking_rank = 1", nativeQuery = true)
+    List<ItemBookingView> findCurrentByItemIds(Collection<Long> itemIds, LocalDateTime now);
+
+    @Query(value = "SELECT b.id AS id, b.booking_user_id AS bookerId, b.status AS status, " +
+            "b.data_start AS bookingStart, b.data_end AS bookingEnd " +
+            "FROM bookings AS b " +
+            "WHERE b.item_id = :itemId " +
+            "ORDER BY b.data_start, b.id", nativeQuery = true)
+    List<BookingIntervalView> findIntervalsByItemId(long itemId);
 
 }
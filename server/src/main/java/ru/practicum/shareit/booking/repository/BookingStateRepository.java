@@ -0,0 +1,22 @@
+package ru.practicum.shareit.booking.repository;
+
+import org.springframework.data.domain.Pageable;
+import ru.practicum.shareit.booking.enums.BookingState;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.pagination.KeysetCursor;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+public interface BookingStateRepository {
+
+    List<Booking> findByBookerAndState(long bookerId, BookingState state, LocalDateTime now, Pageable pageable);
+
+    List<Booking> findByOwnerAndState(long ownerId, BookingState state, LocalDateTime now, Pageable pageable);
+
+    List<Booking> findByBookerAndState(long bookerId, BookingState state, LocalDateTime now, KeysetCursor after,
+                                       int limit);
+
+    List<Booking> findByOwnerAndState(long ownerId, BookingState state, LocalDateTime now, KeysetCursor after,
+                                      int limit);
+}
@@ -0,0 +1,100 @@
+package ru.practicum.shareit.booking.repository;
+
+import org.springframework.data.domain.Pageable;
+import ru.practicum.shareit.booking.enums.BookingState;
+import ru.practicum.shareit.booking.enums.BookingStatus;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.pagination.KeysetCursor;
+
+import javax.persistence.EntityGraph;
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+import javax.persistence.criteria.CriteriaBuilder;
+import javax.persistence.criteria.CriteriaQuery;
+import javax.persistence.criteria.Path;
+import javax.persistence.criteria.Predicate;
+import javax.persistence.criteria.Root;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.function.Function;
+
+public class BookingStateRepositoryImpl implements BookingStateRepository {
+
+    private static final Function<Root<Booking>, Path<Long>> BOOKER = root -> root.get("bookingUser").get("id");
+    private static final Function<Root<Booking>, Path<Long>> OWNER = root -> root.get("ownerId");
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public List<Booking> findByBookerAndState(long bookerId, BookingState state, LocalDateTime now, Pageable pageable) {
+        return find(BOOKER, bookerId, state, now, null, pageable.getOffset(), pageable.getPageSize());
+    }
+
+    @Override
+    public List<Booking> findByOwnerAndState(long ownerId, BookingState state, LocalDateTime now, Pageable pageable) {
+        return find(OWNER, ownerId, state, now, null, pageable.getOffset(), pageable.getPageSize());
+    }
+
+    @Override
+    public List<Booking> findByBookerAndState(long bookerId, BookingState state, LocalDateTime now,
+                                              KeysetCursor after, int limit) {
+        return find(BOOKER, bookerId, state, now, after, 0, limit);
+    }
+
+    @Override
+    public List<Booking> findByOwnerAndState(long ownerId, BookingState state, LocalDateTime now,
+                                             KeysetCursor after, int limit) {
+        return find(OWNER, ownerId, state, now, after, 0, limit);
+    }
+
+    private List<Booking> find(Function<Root<Booking>, Path<Long>> party, long userId, BookingState state,
+                               LocalDateTime now, KeysetCursor after, long offset, int limit) {
+        CriteriaBuilder builder = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Booking> query = builder.createQuery(Booking.class);
+        Root<Booking> root = query.from(Booking.class);
+        Path<LocalDateTime> start = root.get("start");
+        Path<LocalDateTime> end = root.get("end");
+        Path<Long> id = root.get("id");
+        boolean ascending = state == BookingState.CURRENT;
+        Predicate predicate = builder.equal(party.apply(root), userId);
+        switch (state) {
+            case CURRENT:
+                predicate = builder.and(predicate, builder.lessThan(start, now), builder.greaterThan(end, now));
+                break;
+            case FUTURE:
+                predicate = builder.and(predicate, builder.greaterThan(start, now));
+                break;
+            case PAST:
+                predicate = builder.and(predicate, builder.lessThan(end, now));
+                break;
+            case WAITING:
+                predicate = builder.and(predicate, builder.equal(root.get("status"), BookingStatus.WAITING));
+                break;
+            case REJECTED:
+                predicate = builder.and(predicate, builder.equal(root.get("status"), BookingStatus.REJECTED));
+                break;
+            default:
+                break;
+        }
+        if (after != null) {
+            // продолжение после последней строки предыдущей страницы в порядке (data_start, id)
+            predicate = builder.and(predicate, ascending
+                    ? builder.or(builder.greaterThan(start, after.getTimestamp()),
+                    builder.and(builder.equal(start, after.getTimestamp()), builder.greaterThan(id, after.getId())))
+                    : builder.or(builder.lessThan(start, after.getTimestamp()),
+                    builder.and(builder.equal(start, after.getTimestamp()), builder.lessThan(id, after.getId()))));
+        }
+        query.select(root)
+                .where(predicate)
+                .orderBy(ascending ? builder.asc(start) : builder.desc(start),
+                        ascending ? builder.asc(id) : builder.desc(id));
+        EntityGraph<Booking> graph = entityManager.createEntityGraph(Booking.class);
+        graph.addAttributeNodes("item");
+        return entityManager.createQuery(query)
+                .setHint("javax.persistence.fetchgraph", graph)
+                .setFirstResult((int) offset)
+                .setMaxResults(limit)
+                .getResultList();
+    }
+}
@@ -0,0 +1,18 @@
+package ru.practicum.shareit.booking.repository;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import ru.practicum.shareit.booking.model.ItemBookingSummary;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+public interface ItemBookingSummaryRepository extends JpaRepository<ItemBookingSummary, Long> {
+
+    @Query("SELECT s.itemId " +
+            "FROM ItemBookingSummary AS s " +
+            "WHERE s.nextStart <= :now OR s.currentEnd <= :now " +
+            "ORDER BY s.itemId")
+    List<Long> findStaleItemIds(LocalDateTime now, Pageable pageable);
+}
@@ -0,0 +1,268 @@
+package ru.practicum.shareit.booking.service;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.timeline.BookingInterval;
+import ru.practicum.shareit.booking.timeline.BookingTimeline;
+import ru.practicum.shareit.booking.timeline.BookingTimelineCache;
+import ru.practicum.shareit.exception.ValidationException;
+
+import javax.annotation.PreDestroy;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Collectors;
+
+@Slf4j
+@Component
+public class BookingIngestPipeline {
+
+    static final String STOPPED_MESSAGE = "Приём бронирований остановлен";
+
+    private final BookingOverlapGuard bookingOverlapGuard;
+    private final BookingWriter bookingWriter;
+    private final BookingTimelineCache bookingTimelineCache;
+    private final boolean enabled;
+    private final int batchSize;
+    private final long submitTimeoutMs;
+    private final List<Shard> shards = new ArrayList<>();
+    private final DistributionSummary batchSizes;
+    private volatile boolean running = true;
+
+    public BookingIngestPipeline(BookingOverlapGuard bookingOverlapGuard,
+                                 BookingWriter bookingWriter,
+                                 BookingTimelineCache bookingTimelineCache,
+                                 MeterRegistry meterRegistry,
+                                 @Value("${shareit.booking.ingest.sharded:false}") boolean enabled,
+                                 @Value("${shareit.booking.ingest.shards:4}") int shardCount,
+                                 @Value("${shareit.booking.ingest.capacity:1024}") int capacity,
+                                 @Value("${shareit.booking.ingest.batch-size:64}") int batchSize,
+                                 @Value("${shareit.booking.ingest.submit-timeout-ms:5000}") long submitTimeoutMs) {
+        this.bookingOverlapGuard = bookingOverlapGuard;
+        this.bookingWriter = bookingWriter;
+        this.bookingTimelineCache = bookingTimelineCache;
+        this.enabled = enabled;
+        this.batchSize = batchSize;
+        this.submitTimeoutMs = submitTimeoutMs;
+        this.batchSizes = DistributionSummary.builder("booking.ingest.batch.size")
+                .register(meterRegistry);
+        if (enabled) {
+            for (int i = 0; i < shardCount; i++) {
+                Shard shard = new Shard(i, capacity);
+                Gauge.builder("booking.ingest.queue.size", shard.queue, BlockingQueue::size)
+                        .tag("shard", String.valueOf(i))
+                        .register(meterRegistry);
+                shards.add(shard);
+                shard.worker.start();
+            }
+        }
+    }
+
+    public Booking submit(Booking booking) {
+        long itemId = booking.getItem().getId();
+        if (!enabled) {
+            return bookingOverlapGuard.reserve(itemId, booking.getStart(), booking.getEnd(),
+                    () -> write(List.of(booking)).get(0));
+        }
+        if (!running) {
+            throw new IllegalStateException(STOPPED_MESSAGE);
+        }
+        PendingBooking pending = new PendingBooking(booking);
+        // все бронирования одной вещи попадают в одну очередь и обрабатываются одним потоком по порядку
+        BlockingQueue<PendingBooking> queue = shards.get(Math.floorMod(Long.hashCode(itemId), shards.size())).queue;
+        try {
+            queue.put(pending);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Прервано ожидание места в очереди бронирований", e);
+        }
+        // остановка могла забрать остаток очереди раньше, чем сюда попало это бронирование
+        if (!running && queue.remove(pending)) {
+            throw new IllegalStateException(STOPPED_MESSAGE);
+        }
+        try {
+            return pending.result.get(submitTimeoutMs, TimeUnit.MILLISECONDS);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw new IllegalStateException("Не удалось сохранить бронирование", e.getCause());
+        } catch (TimeoutException e) {
+            if (abandon(queue, pending, e)) {
+                log.warn("Бронирование вещи {} не обработано за {} мс", itemId, submitTimeoutMs);
+                throw new IllegalStateException("Превышено время ожидания записи бронирования", e);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            if (abandon(queue, pending, e)) {
+                throw new IllegalStateException("Прервано ожидание записи бронирования", e);
+            }
+        }
+        // поток шарда уже взял бронирование в работу и обязательно завершит ожидание
+        try {
+            return pending.result.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw new IllegalStateException("Не удалось сохранить бронирование", e.getCause());
+        }
+    }
+
+    private boolean abandon(BlockingQueue<PendingBooking> queue, PendingBooking pending, Throwable cause) {
+        if (!pending.claim()) {
+            return false;
+        }
+        queue.remove(pending);
+        pending.result.completeExceptionally(cause);
+        return true;
+    }
+
+    @PreDestroy
+    public void shutdown() throws InterruptedException {
+        running = false;
+        for (Shard shard : shards) {
+            shard.worker.interrupt();
+            shard.worker.join(TimeUnit.SECONDS.toMillis(5));
+            List<PendingBooking> remaining = new ArrayList<>();
+            shard.queue.drainTo(remaining);
+            try {
+                if (!remaining.isEmpty()) {
+                    process(remaining);
+                }
+            } catch (Throwable e) {
+                log.error("Не удалось сохранить {} бронирований при остановке", remaining.size(), e);
+            } finally {
+                fail(remaining, new IllegalStateException(STOPPED_MESSAGE));
+            }
+        }
+    }
+
+    private void run(Shard shard) {
+        List<PendingBooking> batch = new ArrayList<>(batchSize);
+        while (running) {
+            try {
+                batch.add(shard.queue.take());
+                shard.queue.drainTo(batch, batchSize - 1);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                running = false;
+            }
+            if (!batch.isEmpty()) {
+                try {
+                    process(batch);
+                } catch (Throwable e) {
+                    log.error("Сбой обработки пачки из {} бронирований", batch.size(), e);
+                    fail(batch, e);
+                }
+                batch = new ArrayList<>(batchSize);
+            }
+        }
+    }
+
+    private void fail(List<PendingBooking> batch, Throwable cause) {
+        // завершённые ожидания не меняются, ответ получают только те, кто его ещё ждёт
+        batch.forEach(pending -> pending.result.completeExceptionally(cause));
+    }
+
+    private void process(List<PendingBooking> batch) {
+        // ленты вещей пачки с учётом уже принятых в ней бронирований, ещё не записанных в базу
+        Map<Long, BookingTimeline> timelines = new HashMap<>();
+        List<PendingBooking> accepted = new ArrayList<>(batch.size());
+        long placeholderId = 0;
+        for (PendingBooking pending : batch) {
+            if (!pending.claim()) {
+                // вызывающий уже отказался от ожидания по истечении времени
+                continue;
+            }
+            Booking booking = pending.booking;
+            try {
+                long itemId = booking.getItem().getId();
+                BookingTimeline timeline = timelines.computeIfAbsent(itemId, bookingTimelineCache::get);
+                if (timeline.overlaps(booking.getStart(), booking.getEnd())) {
+                    log.info("Бронирование вещи {} пересекается с существующим", itemId);
+                    pending.result.completeExceptionally(new ValidationException(BookingOverlapGuard.OVERLAP_MESSAGE));
+                    continue;
+                }
+                // повторно одобряемая бронь уже имеет id и заменяет в ленте свою отклонённую версию
+                long intervalId = booking.getId() != null ? booking.getId() : --placeholderId;
+                timelines.put(itemId, timeline.with(new BookingInterval(intervalId,
+                        booking.getBookingUser().getId(), booking.getStatus(), booking.getStart(), booking.getEnd())));
+                accepted.add(pending);
+            } catch (RuntimeException e) {
+                pending.result.completeExceptionally(e);
+            }
+        }
+        if (!accepted.isEmpty()) {
+            flush(accepted);
+        }
+    }
+
+    private void flush(List<PendingBooking> batch) {
+        batchSizes.record(batch.size());
+        try {
+            List<Booking> saved = write(batch.stream()
+                    .map(pending -> pending.booking)
+                    .collect(Collectors.toList()));
+            for (int i = 0; i < batch.size(); i++) {
+                batch.get(i).result.complete(saved.get(i));
+            }
+        } catch (RuntimeException e) {
+            log.info("Не удалось сохранить пачку из {} бронирований, сохраняем по одному", batch.size());
+            for (PendingBooking pending : batch) {
+                try {
+                    pending.result.complete(bookingOverlapGuard.save(pending.booking.getItem().getId(),
+                            () -> write(List.of(pending.booking)).get(0)));
+                } catch (RuntimeException single) {
+                    pending.result.completeExceptionally(single);
+                }
+            }
+        }
+    }
+
+    private List<Booking> write(List<Booking> bookings) {
+        List<Booking> saved = bookingWriter.write(bookings);
+        saved.forEach(bookingTimelineCache::record);
+        return saved;
+    }
+
+    private final class Shard {
+        private final BlockingQueue<PendingBooking> queue;
+        private final Thread worker;
+
+        private Shard(int index, int capacity) {
+            this.queue = new ArrayBlockingQueue<>(capacity);
+            this.worker = new Thread(() -> run(this), "booking-shard-" + index);
+            this.worker.setDaemon(true);
+        }
+    }
+
+    private static final class PendingBooking {
+        private final Booking booking;
+        private final CompletableFuture<Booking> result = new CompletableFuture<>();
+        // забирает либо поток шарда перед записью, либо вызывающий при отказе от ожидания
+        private final AtomicBoolean claimed = new AtomicBoolean();
+
+        private PendingBooking(Booking booking) {
+            this.booking = booking;
+        }
+
+        private boolean claim() {
+            return claimed.compareAndSet(false, true);
+        }
+    }
+}
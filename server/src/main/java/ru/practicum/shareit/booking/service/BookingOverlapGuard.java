@@ -0,0 +1,66 @@
+package ru.practicum.shareit.booking.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.booking.timeline.BookingTimelineCache;
+import ru.practicum.shareit.exception.ValidationException;
+
+import java.time.LocalDateTime;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+
+@Slf4j
+@Component
+public class BookingOverlapGuard {
+
+    static final String OVERLAP_MESSAGE = "Вещь уже забронирована на указанный период";
+    private static final String OVERLAP_CONSTRAINT = "ex_bookings_item_period";
+
+    private final BookingTimelineCache bookingTimelineCache;
+    private final boolean enabled;
+    private final ReentrantLock[] stripes;
+
+    public BookingOverlapGuard(BookingTimelineCache bookingTimelineCache,
+                               @Value("${shareit.booking.overlap-check.enabled:true}") boolean enabled,
+                               @Value("${shareit.booking.overlap-check.lock-stripes:64}") int lockStripes) {
+        this.bookingTimelineCache = bookingTimelineCache;
+        this.enabled = enabled;
+        this.stripes = new ReentrantLock[lockStripes];
+        for (int i = 0; i < lockStripes; i++) {
+            stripes[i] = new ReentrantLock();
+        }
+    }
+
+    public <T> T reserve(long itemId, LocalDateTime start, LocalDateTime end, Supplier<T> save) {
+        if (!enabled) {
+            return save(itemId, save);
+        }
+        // бронирования разных вещей попадают в разные полосы и не ждут друг друга
+        ReentrantLock lock = stripes[Math.floorMod(Long.hashCode(itemId), stripes.length)];
+        lock.lock();
+        try {
+            if (bookingTimelineCache.get(itemId).overlaps(start, end)) {
+                log.info("Бронирование вещи {} пересекается с существующим", itemId);
+                throw new ValidationException(OVERLAP_MESSAGE);
+            }
+            return save(itemId, save);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    <T> T save(long itemId, Supplier<T> save) {
+        try {
+            return save.get();
+        } catch (DataIntegrityViolationException e) {
+            // ограничение исключения в базе срабатывает, если пересекающаяся бронь пришла с другого экземпляра сервиса
+            if (String.valueOf(e.getMostSpecificCause().getMessage()).contains(OVERLAP_CONSTRAINT)) {
+                log.info("Бронирование вещи {} отклонено ограничением базы данных", itemId);
+                throw new ValidationException(OVERLAP_MESSAGE);
+            }
+            throw e;
+        }
+    }
+}
@@ -2,6 +2,7 @@ package ru.practicum.shareit.booking.service;
 
 import ru.practicum.shareit.booking.dto.BookingDtoRequest;
 import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.pagination.CursorPage;
 
 import java.util.List;
 
@@ -16,4 +17,8 @@ public interface BookingService {
     List<Booking> getUserBookings(long userId, String status, Integer from, Integer size);
 
     List<Booking> getUserItems(long userId, String status, Integer from, Integer size);
+
+    CursorPage<Booking> getUserBookings(long userId, String status, String cursor, Integer size);
+
+    CursorPage<Booking> getUserItems(long userId, String status, String cursor, Integer size);
 }
@@ -3,17 +3,21 @@ package ru.practicum.shareit.booking.service;
 import lombok.AllArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.data.domain.PageRequest;
-import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import ru.practicum.shareit.booking.dto.BookingDtoRequest;
+import ru.practicum.shareit.booking.enums.BookingState;
 import ru.practicum.shareit.booking.enums.BookingStatus;
 import ru.practicum.shareit.booking.mapper.BookingMapper;
 import ru.practicum.shareit.booking.model.Booking;
 import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.booking.timeline.BookingTimelineCache;
 import ru.practicum.shareit.exception.NotFoundException;
 import ru.practicum.shareit.exception.ValidationException;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.item.service.ItemViewCache;
+import ru.practicum.shareit.pagination.CursorPage;
+import ru.practicum.shareit.pagination.KeysetCursor;
 import ru.practicum.shareit.user.model.User;
 import ru.practicum.shareit.user.repository.UserRepository;
 
@@ -27,6 +31,10 @@ public class BookingServiceImpl implements BookingService {
     private final BookingRepository bookingRepository;
     private final UserRepository userRepository;
     private final ItemRepository itemRepository;
+    private final ItemBookingSummaryService itemBookingSummaryService;
+    private final BookingTimelineCache bookingTimelineCache;
+    private final ItemViewCache itemViewCache;
+    private final BookingIngestPipeline bookingIngestPipeline;
 
     @Override
     public Booking addBooking(long userId, BookingDtoRequest bookingDtoRequest) {
@@ -48,7 +56,10 @@ public class BookingServiceImpl implements BookingService {
             log.info("Пытаются забронировать недоступную вещь");
             throw new ValidationException("Невозможно забронировать данную вещь");
         }
-        Booking booking = bookingRepository.save(BookingMapper.toBooking(bookingDtoRequest, item, user, BookingStatus.WAITING));
+        Booking booking = bookingIngestPipeline.submit(BookingMapper.toBooking(bookingDtoRequest, item, user,
+                BookingStatus.WAITING));
+        itemBookingSummaryService.refresh(List.of(item.getId()));
+        itemViewCache.invalidate(item.getId());
         return bookingRepository.findById(booking.getId())
                 .orElseThrow(() -> new NotFoundException("Не найдено бронирование с  id " + booking.getId()));
     }
@@ -69,16 +80,32 @@ public class BookingServiceImpl implements BookingService {
                 log.info("Заявка на бронирование уже подтверждена");
                 throw new ValidationException("Заявка на бронирование уже подтверждена");
             }
-            booking.setStatus(BookingStatus.APPROVED);
+            if (booking.getStatus() == BookingStatus.REJECTED) {
+                // отклонённая бронь снова занимает период вещи и проверяется на пересечение как новая,
+                // поэтому проходит тот же путь, что и новые брони вещи
+                booking.setStatus(BookingStatus.APPROVED);
+                bookingIngestPipeline.submit(booking);
+            } else {
+                booking.setStatus(BookingStatus.APPROVED);
+                save(booking);
+            }
         } else {
             booking.setStatus(BookingStatus.REJECTED);
+            save(booking);
         }
-        bookingRepository.save(booking);
+        itemBookingSummaryService.refresh(List.of(item.getId()));
+        itemViewCache.invalidate(item.getId());
         log.info("добавлено новое бронирование = {}", booking);
         return bookingRepository.findById(bookingId)
                 .orElseThrow(() -> new NotFoundException("Не найдено бронирование с  id " + bookingId));
     }
 
+    private Booking save(Booking booking) {
+        Booking saved = bookingRepository.save(booking);
+        bookingTimelineCache.record(booking);
+        return saved;
+    }
+
     @Override
     public Booking getBooking(long bookingId, long userId) {
         User user = userRepository.findById(userId)
@@ -97,71 +124,47 @@ public class BookingServiceImpl implements BookingService {
     public List<Booking> getUserBookings(long userId, String status, Integer from, Integer size) {
         User user = userRepository.findById(userId)
                 .orElseThrow(() -> new NotFoundException("Пользователя с таким id = " + userId + "  не существует"));
-        LocalDateTime dateTime = LocalDateTime.now();
-        Pageable pageable = PageRequest.of(from / size, size);
-        List<Booking> bookingList;
-        switch (status) {
-            case "ALL":
-                bookingList = bookingRepository.findAllByBookingUserOrderByStartDesc(user, pageable);
-                break;
-            case "CURRENT":
-                bookingList = bookingRepository.findAllByBookingUserAndStartIsBeforeAndEndIsAfterOrderByStart(user,
-                        dateTime, dateTime, pageable);
-                break;
-            case "FUTURE":
-                bookingList = bookingRepository.findAllByBookingUserAndStartIsAfterOrderByStartDesc(user, dateTime, pageable);
-                break;
-            case "PAST":
-                bookingList = bookingRepository.findAllByBookingUserAndEndIsBeforeOrderByStartDesc(user, dateTime, pageable);
-                break;
-            case "WAITING":
-                bookingList = bookingRepository.findAllByBookingUserAndStatusEqualsOrderByStartDesc(user,
-                        BookingStatus.WAITING, pageable);
-                break;
-            case "REJECTED":
-                bookingList = bookingRepository.findAllByBookingUserAndStatusEqualsOrderByStartDesc(user,
-                        BookingStatus.REJECTED, pageable);
-                break;
-            default:
-                log.info("Передан неверный статус");
-                throw new ValidationException("Unknown state: UNSUPPORTED_STATUS");
-        }
-        return bookingList;
+        return bookingRepository.findByBookerAndState(user.getId(), toState(status), LocalDateTime.now(),
+                PageRequest.of(from / size, size));
     }
 
     @Override
     public List<Booking> getUserItems(long userId, String status, Integer from, Integer size) {
         User user = userRepository.findById(userId)
                 .orElseThrow(() -> new NotFoundException("Пользователя с таким id = " + userId + "  не существует"));
-        LocalDateTime dateTime = LocalDateTime.now();
-        Pageable pageable = PageRequest.of(from / size, size);
-        List<Booking> bookingList;
-        switch (status) {
-            case "ALL":
-                bookingList = bookingRepository.findAllByItemOwnerOrderByStartDesc(user, pageable);
-                break;
-            case "CURRENT":
-                bookingList = bookingRepository.findAllByItemOwnerAndStartIsBeforeAndEndIsAfterOrderByStart(user,
-                        dateTime, dateTime, pageable);
-                break;
-            case "FUTURE":
-                bookingList = bookingRepository.findAllByItemOwnerAndStartIsAfterOrderByStartDesc(user, dateTime, pageable);
-                break;
-            case "PAST":
-                bookingList = bookingRepository.findAllByItemOwnerAndEndIsBeforeOrderByStartDesc(user, dateTime, pageable);
-                break;
-            case "WAITING":
-                bookingList = bookingRepository.findAllByItemOwnerAndStatusEqualsOrderByStartDesc(user,
-                        BookingStatus.WAITING, pageable);
-                break;
-            case "REJECTED":
-                bookingList = bookingRepository.findAllByItemOwnerAndStatusEqualsOrderByStartDesc(user,
-                        BookingStatus.REJECTED, pageable);
-                break;
-            default:
-                log.info("Передан неверный статус");
-                throw new ValidationException("Unknown state: UNSUPPORTED_STATUS");
+        return bookingRepository.findByOwnerAndState(user.getId(), toState(status), LocalDateTime.now(),
+                PageRequest.of(from / size, size));
+    }
+
+    @Override
+    public CursorPage<Booking> getUserBookings(long userId, String status, String cursor, Integer size) {
+        User user = userRepository.findById(userId)
+                .orElseThrow(() -> new NotFoundException("Пользователя с таким id = " + userId + "  не существует"));
+        return toPage(bookingRepository.findByBookerAndState(user.getId(), toState(status), LocalDateTime.now(),
+                KeysetCursor.decode(cursor), size + 1), size);
+    }
+
+    @Override
+    public CursorPage<Booking> getUserItems(long userId, String status, String cursor, Integer size) {
+        User user = userRepository.findById(userId)
+                .orElseThrow(() -> new NotFoundException("Пользователя с таким id = " + userId + "  не существует"));
+        return toPage(bookingRepository.findByOwnerAndState(user.getId(), toState(status), LocalDateTime.now(),
+                KeysetCursor.decode(cursor), size + 1), size);
+    }
+
+    private CursorPage<Booking> toPage(List<Booking> bookings, int size) {
+        boolean hasMore = bookings.size() > size;
+        List<Booking> window = hasMore ? bookings.subList(0, size) : bookings;
+        Booking last = window.isEmpty() ? null : window.get(window.size() - 1);
+        return new CursorPage<>(window, hasMore ? new KeysetCursor(last.getStart(), last.getId()).encode() : null);
+    }
+
+    private BookingState toState(String status) {
+        try {
+            return BookingState.valueOf(status);
+        } catch (IllegalArgumentException e) {
+            log.info("Передан неверный статус");
+            throw new ValidationException("Unknown state: UNSUPPORTED_STATUS");
         }
-        return bookingList;
     }
 }
@@ -0,0 +1,21 @@
+package ru.practicum.shareit.booking.service;
+
+import lombok.AllArgsConstructor;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+
+import java.util.List;
+
+@Component
+@AllArgsConstructor
+public class BookingWriter {
+
+    private final BookingRepository bookingRepository;
+
+    @Transactional
+    public List<Booking> write(List<Booking> bookings) {
+        return bookingRepository.saveAll(bookings);
+    }
+}
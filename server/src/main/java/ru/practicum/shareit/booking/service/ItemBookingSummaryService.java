@@ -0,0 +1,105 @@
+package ru.practicum.shareit.booking.service;
+
+import lombok.AllArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.shareit.booking.dto.ItemBookingView;
+import ru.practicum.shareit.booking.enums.BookingStatus;
+import ru.practicum.shareit.booking.model.ItemBookingSummary;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.booking.repository.ItemBookingSummaryRepository;
+import ru.practicum.shareit.item.repository.ItemRepository;
+
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+@Slf4j
+@Service
+@AllArgsConstructor
+public class ItemBookingSummaryService {
+
+    private static final int ROLL_FORWARD_BATCH_SIZE = 500;
+
+    private final BookingRepository bookingRepository;
+    private final ItemBookingSummaryRepository itemBookingSummaryRepository;
+    private final ItemRepository itemRepository;
+
+    @Transactional
+    public void refresh(Collection<Long> itemIds) {
+        lock(itemIds);
+        refresh(itemIds, LocalDateTime.now());
+    }
+
+    @Transactional
+    public Map<Long, ItemBookingSummary> findByItemIds(Collection<Long> itemIds) {
+        LocalDateTime now = LocalDateTime.now();
+        Map<Long, ItemBookingSummary> summaries = itemBookingSummaryRepository.findAllById(itemIds).stream()
+                .collect(Collectors.toMap(ItemBookingSummary::getItemId, Function.identity()));
+        List<Long> staleItemIds = summaries.values().stream()
+                .filter(summary -> summary.isStale(now))
+                .map(ItemBookingSummary::getItemId)
+                .collect(Collectors.toList());
+        if (!staleItemIds.isEmpty()) {
+            lock(staleItemIds);
+            summaries.putAll(refresh(staleItemIds, LocalDateTime.now()));
+        }
+        return summaries;
+    }
+
+    @Transactional
+    @Scheduled(fixedDelayString = "${shareit.booking.summary.roll-forward-delay:60000}")
+    public void rollForward() {
+        LocalDateTime now = LocalDateTime.now();
+        int refreshed = 0;
+        List<Long> staleItemIds;
+        do {
+            staleItemIds = itemBookingSummaryRepository.findStaleItemIds(now, PageRequest.of(0, ROLL_FORWARD_BATCH_SIZE));
+            if (!staleItemIds.isEmpty()) {
+                lock(staleItemIds);
+                refresh(staleItemIds, now);
+                refreshed += staleItemIds.size();
+            }
+        } while (staleItemIds.size() == ROLL_FORWARD_BATCH_SIZE);
+        if (refreshed > 0) {
+            log.info("Обновлены сводки бронирований для {} вещей", refreshed);
+        }
+    }
+
+    // Строки вещей блокируются до конца транзакции, поэтому пересчёты сводки одной вещи идут по очереди
+    // и более ранний снимок бронирований не перезаписывает более поздний. Порядок по id исключает взаимные блокировки
+    private void lock(Collection<Long> itemIds) {
+        itemRepository.lockByIds(itemIds);
+    }
+
+    private Map<Long, ItemBookingSummary> refresh(Collection<Long> itemIds, LocalDateTime now) {
+        Map<Long, ItemBookingSummary> summaries = new HashMap<>();
+        itemIds.forEach(itemId -> summaries.put(itemId, ItemBookingSummary.builder().itemId(itemId).build()));
+        for (ItemBookingView booking : bookingRepository.findLastAndNextByItemIds(itemIds, now)) {
+            ItemBookingSummary summary = summaries.get(booking.getItemId());
+            BookingStatus status = BookingStatus.valueOf(booking.getStatus());
+            if (booking.getPast() == 1) {
+                summary.setLastBookingId(booking.getId());
+                summary.setLastBookerId(booking.getBookerId());
+                summary.setLastStatus(status);
+            } else {
+                summary.setNextBookingId(booking.getId());
+                summary.setNextBookerId(booking.getBookerId());
+                summary.setNextStatus(status);
+                summary.setNextStart(booking.getBookingStart());
+            }
+        }
+        for (ItemBookingView booking : bookingRepository.findCurrentByItemIds(itemIds, now)) {
+            ItemBookingSummary summary = summaries.get(booking.getItemId());
+            summary.setCurrentBookingId(booking.getId());
+            summary.setCurrentBookerId(booking.getBookerId());
+            summary.setCurrentEnd(booking.getBookingEnd());
+        }
+        itemBookingSummaryRepository.saveAll(summaries.values());
+        return summaries;
+    }
+}
@@ -0,0 +1,33 @@
+package ru.practicum.shareit.booking.timeline;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import ru.practicum.shareit.booking.dto.BookingIntervalView;
+import ru.practicum.shareit.booking.enums.BookingStatus;
+import ru.practicum.shareit.booking.model.Booking;
+
+import java.time.LocalDateTime;
+
+@Data
+@AllArgsConstructor
+public class BookingInterval {
+    private long id;
+    private long bookerId;
+    private BookingStatus status;
+    private LocalDateTime start;
+    private LocalDateTime end;
+
+    public static BookingInterval of(Booking booking) {
+        return new BookingInterval(booking.getId(), booking.getBookingUser().getId(), booking.getStatus(),
+                booking.getStart(), booking.getEnd());
+    }
+
+    public static BookingInterval of(BookingIntervalView view) {
+        return new BookingInterval(view.getId(), view.getBookerId(), BookingStatus.valueOf(view.getStatus()),
+                view.getBookingStart(), view.getBookingEnd());
+    }
+
+    public boolean isBlocking() {
+        return status != BookingStatus.REJECTED;
+    }
+}
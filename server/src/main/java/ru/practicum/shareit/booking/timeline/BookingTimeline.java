@@ -0,0 +1,120 @@
+package ru.practicum.shareit.booking.timeline;
+
+import java.time.LocalDateTime;
+import java.util.*;
+
+public final class BookingTimeline {
+
+    private static final Comparator<BookingInterval> ORDER = Comparator.comparing(BookingInterval::getStart)
+            .thenComparingLong(BookingInterval::getId);
+
+    private final BookingInterval[] intervals;
+    // Дерево отрезков с максимальным окончанием неотклонённых бронирований, null - таких бронирований нет
+    private final LocalDateTime[] maxEnd;
+    private final Map<Long, LocalDateTime> firstEndByBooker = new HashMap<>();
+
+    private BookingTimeline(BookingInterval[] intervals) {
+        this.intervals = intervals;
+        this.maxEnd = new LocalDateTime[Math.max(1, 4 * intervals.length)];
+        if (intervals.length > 0) {
+            build(1, 0, intervals.length - 1);
+        }
+        for (BookingInterval interval : intervals) {
+            firstEndByBooker.merge(interval.getBookerId(), interval.getEnd(), BookingTimeline::min);
+        }
+    }
+
+    public static BookingTimeline of(Collection<BookingInterval> intervals) {
+        BookingInterval[] sorted = intervals.toArray(new BookingInterval[0]);
+        Arrays.sort(sorted, ORDER);
+        return new BookingTimeline(sorted);
+    }
+
+    public BookingTimeline with(BookingInterval interval) {
+        List<BookingInterval> updated = new ArrayList<>(intervals.length + 1);
+        for (BookingInterval existing : intervals) {
+            if (existing.getId() != interval.getId()) {
+                updated.add(existing);
+            }
+        }
+        updated.add(interval);
+        return of(updated);
+    }
+
+    public int size() {
+        return intervals.length;
+    }
+
+    public Optional<BookingInterval> last(LocalDateTime now) {
+        int position = lastStartedBefore(now, true);
+        return position < 0 ? Optional.empty() : Optional.of(intervals[position]);
+    }
+
+    public Optional<BookingInterval> next(LocalDateTime now) {
+        int position = lastStartedBefore(now, true) + 1;
+        return position < intervals.length ? Optional.of(intervals[position]) : Optional.empty();
+    }
+
+    public Optional<BookingInterval> current(LocalDateTime now) {
+        int position = findLastEndingAfter(1, 0, intervals.length - 1, lastStartedBefore(now, true), now);
+        return position < 0 ? Optional.empty() : Optional.of(intervals[position]);
+    }
+
+    public boolean overlaps(LocalDateTime start, LocalDateTime end) {
+        return findLastEndingAfter(1, 0, intervals.length - 1, lastStartedBefore(end, false), start) >= 0;
+    }
+
+    public boolean hasFinishedBooking(long bookerId, LocalDateTime now) {
+        LocalDateTime firstEnd = firstEndByBooker.get(bookerId);
+        return firstEnd != null && firstEnd.isBefore(now);
+    }
+
+    private int lastStartedBefore(LocalDateTime moment, boolean inclusive) {
+        int low = 0;
+        int high = intervals.length;
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            int compared = intervals[middle].getStart().compareTo(moment);
+            if (compared < 0 || inclusive && compared == 0) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+        return low - 1;
+    }
+
+    private void build(int node, int low, int high) {
+        if (low == high) {
+            maxEnd[node] = intervals[low].isBlocking() ? intervals[low].getEnd() : null;
+            return;
+        }
+        int middle = (low + high) >>> 1;
+        build(2 * node, low, middle);
+        build(2 * node + 1, middle + 1, high);
+        maxEnd[node] = max(maxEnd[2 * node], maxEnd[2 * node + 1]);
+    }
+
+    private int findLastEndingAfter(int node, int low, int high, int limit, LocalDateTime moment) {
+        if (limit < low || high < low || maxEnd[node] == null || !maxEnd[node].isAfter(moment)) {
+            return -1;
+        }
+        if (low == high) {
+            return low;
+        }
+        int middle = (low + high) >>> 1;
+        int position = findLastEndingAfter(2 * node + 1, middle + 1, high, limit, moment);
+        return position >= 0 ? position : findLastEndingAfter(2 * node, low, middle, limit, moment);
+    }
+
+    private static LocalDateTime max(LocalDateTime first, LocalDateTime second) {
+        if (first == null) {
+            return second;
+        }
+        return second == null || first.isAfter(second) ? first : second;
+    }
+
+    private static LocalDateTime min(LocalDateTime first, LocalDateTime second) {
+        return first.isBefore(second) ? first : second;
+    }
+}
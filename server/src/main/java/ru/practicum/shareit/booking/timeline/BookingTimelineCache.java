@@ -0,0 +1,108 @@
+package ru.practicum.shareit.booking.timeline;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+
+import java.time.LocalDateTime;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+@Component
+public class BookingTimelineCache {
+
+    private static final String CACHE_NAME = "bookingTimeline";
+
+    private final BookingRepository bookingRepository;
+    private final int maxItems;
+    private final LinkedHashMap<Long, BookingTimeline> timelines = new LinkedHashMap<>(16, 0.75f, true);
+    private final Counter hits;
+    private final Counter misses;
+    private final Counter evictions;
+    private long generation;
+
+    public BookingTimelineCache(BookingRepository bookingRepository,
+                                MeterRegistry meterRegistry,
+                                @Value("${shareit.booking.timeline.max-items:10000}") int maxItems) {
+        this.bookingRepository = bookingRepository;
+        this.maxItems = maxItems;
+        this.hits = counter(meterRegistry, "cache.gets", "hit");
+        this.misses = counter(meterRegistry, "cache.gets", "miss");
+        this.evictions = counter(meterRegistry, "cache.evictions", null);
+        Gauge.builder("cache.size", this, BookingTimelineCache::size)
+                .tag("cache", CACHE_NAME)
+                .register(meterRegistry);
+    }
+
+    public BookingTimeline get(long itemId) {
+        long loadGeneration;
+        synchronized (this) {
+            BookingTimeline cached = timelines.get(itemId);
+            if (cached != null) {
+                hits.increment();
+                return cached;
+            }
+            loadGeneration = generation;
+        }
+        misses.increment();
+        BookingTimeline loaded = BookingTimeline.of(bookingRepository.findIntervalsByItemId(itemId).stream()
+                .map(BookingInterval::of)
+                .collect(Collectors.toList()));
+        synchronized (this) {
+            if (loadGeneration == generation && !timelines.containsKey(itemId)) {
+                put(itemId, loaded);
+            }
+        }
+        return loaded;
+    }
+
+    public boolean hasFinishedBooking(long itemId, long bookerId, LocalDateTime now) {
+        synchronized (this) {
+            BookingTimeline cached = timelines.get(itemId);
+            if (cached != null) {
+                hits.increment();
+                return cached.hasFinishedBooking(bookerId, now);
+            }
+        }
+        // без загрузки всей ленты вещи: проверка при комментарии - точечный запрос по индексу
+        misses.increment();
+        return bookingRepository.existsByBookingUserIdAndItemIdAndEndIsBefore(bookerId, itemId, now);
+    }
+
+    public synchronized void record(Booking booking) {
+        generation++;
+        long itemId = booking.getItem().getId();
+        BookingTimeline timeline = timelines.get(itemId);
+        if (timeline != null) {
+            timelines.put(itemId, timeline.with(BookingInterval.of(booking)));
+        }
+    }
+
+    public synchronized int size() {
+        return timelines.size();
+    }
+
+    private void put(long itemId, BookingTimeline timeline) {
+        timelines.put(itemId, timeline);
+        Iterator<Map.Entry<Long, BookingTimeline>> eldest = timelines.entrySet().iterator();
+        while (timelines.size() > maxItems && eldest.hasNext()) {
+            eldest.next();
+            eldest.remove();
+            evictions.increment();
+        }
+    }
+
+    private static Counter counter(MeterRegistry meterRegistry, String name, String result) {
+        Counter.Builder builder = Counter.builder(name).tag("cache", CACHE_NAME);
+        if (result != null) {
+            builder.tag("result", result);
+        }
+        return builder.register(meterRegistry);
+    }
+}
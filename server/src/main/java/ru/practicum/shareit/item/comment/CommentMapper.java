@@ -19,6 +19,15 @@ public class CommentMapper {
                 .build();
     }
 
+    public static CommentDto toCommentDto(CommentView comment) {
+        return CommentDto.builder()
+                .id(comment.getId())
+                .text(comment.getText())
+                .authorName(comment.getAuthorName())
+                .created(comment.getCreated())
+                .build();
+    }
+
     public static Comment toComment(CommentDtoInput commentDtoInput, Item item, User user) {
         return Comment.builder()
                 .text(commentDtoInput.getText())
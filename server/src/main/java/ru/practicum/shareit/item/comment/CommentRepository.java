@@ -1,10 +1,37 @@
 package ru.practicum.shareit.item.comment;
 
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
-import ru.practicum.shareit.item.model.Item;
+import org.springframework.data.jpa.repository.Query;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 
 public interface CommentRepository extends JpaRepository<Comment, Long> {
-    List<Comment> findAllByItem(Item item);
+    @Query(value = "SELECT ranked.item_id AS itemId, ranked.id AS id, ranked.text AS text, " +
+            "ranked.author_name AS authorName, ranked.created AS created " +
+            "FROM (SELECT c.item_id, c.id, c.text, u.name AS author_name, c.created, " +
+            "ROW_NUMBER() OVER (PARTITION BY c.item_id ORDER BY c.created DESC, c.id DESC) AS comment_rank " +
+            "FROM comments AS c " +
+            "JOIN users AS u ON u.id = c.author_id " +
+            "WHERE c.item_id IN (:itemIds)) AS ranked " +
+            "WHERE ranked.comment_rank <= :limit " +
+            "ORDER BY ranked.item_id, ranked.created DESC, ranked.id DESC", nativeQuery = true)
+    List<CommentView> findNewestByItemIds(Collection<Long> itemIds, int limit);
+
+    @Query("SELECT c " +
+            "FROM Comment AS c " +
+            "JOIN FETCH c.author " +
+            "WHERE c.item.id = :itemId " +
+            "ORDER BY c.created DESC, c.id DESC")
+    List<Comment> findFirstPageByItemId(long itemId, Pageable pageable);
+
+    @Query("SELECT c " +
+            "FROM Comment AS c " +
+            "JOIN FETCH c.author " +
+            "WHERE c.item.id = :itemId " +
+            "AND (c.created < :created OR (c.created = :created AND c.id < :id)) " +
+            "ORDER BY c.created DESC, c.id DESC")
+    List<Comment> findPageByItemIdAfter(long itemId, LocalDateTime created, long id, Pageable pageable);
 }
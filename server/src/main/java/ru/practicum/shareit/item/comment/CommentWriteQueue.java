@@ -0,0 +1,217 @@
+package ru.practicum.shareit.item.comment;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PreDestroy;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Collectors;
+
+@Slf4j
+@Component
+public class CommentWriteQueue {
+
+    private final CommentWriter commentWriter;
+    private final boolean enabled;
+    private final int batchSize;
+    private final long flushIntervalNanos;
+    private final long submitTimeoutMs;
+    private final BlockingQueue<PendingComment> queue;
+    private final DistributionSummary batchSizes;
+    private final Thread flusher;
+    private volatile boolean running = true;
+
+    public CommentWriteQueue(CommentWriter commentWriter,
+                             MeterRegistry meterRegistry,
+                             @Value("${shareit.comment.write-behind.enabled:false}") boolean enabled,
+                             @Value("${shareit.comment.write-behind.batch-size:100}") int batchSize,
+                             @Value("${shareit.comment.write-behind.flush-interval-ms:5}") long flushIntervalMs,
+                             @Value("${shareit.comment.write-behind.capacity:10000}") int capacity,
+                             @Value("${shareit.comment.write-behind.submit-timeout-ms:5000}") long submitTimeoutMs) {
+        this.commentWriter = commentWriter;
+        this.enabled = enabled;
+        this.batchSize = batchSize;
+        this.flushIntervalNanos = TimeUnit.MILLISECONDS.toNanos(flushIntervalMs);
+        this.submitTimeoutMs = submitTimeoutMs;
+        this.queue = new ArrayBlockingQueue<>(capacity);
+        this.batchSizes = DistributionSummary.builder("comment.write.batch.size")
+                .register(meterRegistry);
+        Gauge.builder("comment.write.queue.size", queue, BlockingQueue::size)
+                .register(meterRegistry);
+        if (enabled) {
+            flusher = new Thread(this::flushLoop, "comment-write-behind");
+            flusher.setDaemon(true);
+            flusher.start();
+        } else {
+            flusher = null;
+        }
+    }
+
+    public Comment write(Comment comment) {
+        if (!enabled) {
+            return commentWriter.write(List.of(comment)).get(0);
+        }
+        PendingComment pending = new PendingComment(comment);
+        if (!running || !queue.offer(pending)) {
+            log.info("Очередь записи комментариев заполнена, комментарий сохраняется синхронно");
+            return commentWriter.write(List.of(comment)).get(0);
+        }
+        // остановка могла забрать остаток очереди раньше, чем сюда попал этот комментарий
+        if (!running && queue.remove(pending)) {
+            return commentWriter.write(List.of(comment)).get(0);
+        }
+        try {
+            return pending.result.get(submitTimeoutMs, TimeUnit.MILLISECONDS);
+        } catch (ExecutionException e) {
+            throw unwrap(e.getCause());
+        } catch (TimeoutException e) {
+            if (abandon(pending, e)) {
+                log.warn("Комментарий не сохранён за {} мс", submitTimeoutMs);
+                throw new IllegalStateException("Превышено время ожидания записи комментария", e);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            if (abandon(pending, e)) {
+                throw new IllegalStateException("Прервано ожидание записи комментария", e);
+            }
+        }
+        // поток записи уже взял комментарий в работу и обязательно завершит ожидание
+        try {
+            return pending.result.join();
+        } catch (CompletionException e) {
+            throw unwrap(e.getCause());
+        }
+    }
+
+    private boolean abandon(PendingComment pending, Throwable cause) {
+        if (!pending.claim()) {
+            return false;
+        }
+        queue.remove(pending);
+        pending.result.completeExceptionally(cause);
+        return true;
+    }
+
+    private RuntimeException unwrap(Throwable cause) {
+        if (cause instanceof RuntimeException) {
+            return (RuntimeException) cause;
+        }
+        return new IllegalStateException("Не удалось сохранить комментарий", cause);
+    }
+
+    @PreDestroy
+    public void shutdown() throws InterruptedException {
+        running = false;
+        if (flusher != null) {
+            flusher.interrupt();
+            flusher.join(TimeUnit.SECONDS.toMillis(5));
+        }
+        List<PendingComment> remaining = new ArrayList<>();
+        queue.drainTo(remaining);
+        try {
+            if (!remaining.isEmpty()) {
+                flush(claim(remaining));
+            }
+        } catch (Throwable e) {
+            log.error("Не удалось сохранить {} комментариев при остановке", remaining.size(), e);
+        } finally {
+            fail(remaining, new IllegalStateException("Запись комментариев остановлена"));
+        }
+    }
+
+    private void flushLoop() {
+        List<PendingComment> batch = new ArrayList<>(batchSize);
+        while (running) {
+            try {
+                PendingComment first = queue.poll(100, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                long deadline = System.nanoTime() + flushIntervalNanos;
+                while (batch.size() < batchSize) {
+                    long wait = deadline - System.nanoTime();
+                    PendingComment next = wait > 0 ? queue.poll(wait, TimeUnit.NANOSECONDS) : queue.poll();
+                    if (next == null) {
+                        break;
+                    }
+                    batch.add(next);
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                running = false;
+            }
+            if (!batch.isEmpty()) {
+                try {
+                    flush(claim(batch));
+                } catch (Throwable e) {
+                    log.error("Сбой записи пачки из {} комментариев", batch.size(), e);
+                    fail(batch, e);
+                }
+                batch = new ArrayList<>(batchSize);
+            }
+        }
+    }
+
+    // комментарии, от ожидания которых вызывающий уже отказался, не записываются
+    private List<PendingComment> claim(List<PendingComment> batch) {
+        return batch.stream()
+                .filter(PendingComment::claim)
+                .collect(Collectors.toList());
+    }
+
+    private void fail(List<PendingComment> batch, Throwable cause) {
+        batch.forEach(pending -> pending.result.completeExceptionally(cause));
+    }
+
+    private void flush(List<PendingComment> batch) {
+        if (batch.isEmpty()) {
+            return;
+        }
+        batchSizes.record(batch.size());
+        try {
+            List<Comment> saved = commentWriter.write(batch.stream()
+                    .map(pending -> pending.comment)
+                    .collect(Collectors.toList()));
+            for (int i = 0; i < batch.size(); i++) {
+                batch.get(i).result.complete(saved.get(i));
+            }
+        } catch (RuntimeException e) {
+            if (batch.size() == 1) {
+                batch.get(0).result.completeExceptionally(e);
+                return;
+            }
+            // одна некорректная запись не должна отменять остальные комментарии пачки
+            log.info("Не удалось сохранить пачку из {} комментариев, сохраняем по одному", batch.size());
+            batch.forEach(pending -> flush(List.of(pending)));
+        }
+    }
+
+    private static final class PendingComment {
+        private final Comment comment;
+        private final CompletableFuture<Comment> result = new CompletableFuture<>();
+        // забирает либо поток записи перед сохранением, либо вызывающий при отказе от ожидания
+        private final AtomicBoolean claimed = new AtomicBoolean();
+
+        private PendingComment(Comment comment) {
+            this.comment = comment;
+        }
+
+        private boolean claim() {
+            return claimed.compareAndSet(false, true);
+        }
+    }
+}
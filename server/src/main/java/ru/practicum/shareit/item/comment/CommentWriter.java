@@ -0,0 +1,27 @@
+package ru.practicum.shareit.item.comment;
+
+import lombok.AllArgsConstructor;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.shareit.item.repository.ItemRepository;
+
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+@Component
+@AllArgsConstructor
+public class CommentWriter {
+
+    private final CommentRepository commentRepository;
+    private final ItemRepository itemRepository;
+
+    @Transactional
+    public List<Comment> write(List<Comment> comments) {
+        List<Comment> saved = commentRepository.saveAll(comments);
+        Map<Long, Long> countsByItem = comments.stream()
+                .collect(Collectors.groupingBy(comment -> comment.getItem().getId(), Collectors.counting()));
+        countsByItem.forEach(itemRepository::incrementCommentCount);
+        return saved;
+    }
+}
@@ -1,21 +1,23 @@
 package ru.practicum.shareit.item.controller;
 
 import lombok.AllArgsConstructor;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 import ru.practicum.shareit.item.comment.CommentDto;
 import ru.practicum.shareit.item.comment.CommentDtoInput;
 import ru.practicum.shareit.item.comment.CommentMapper;
 import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.dto.ItemSearchPage;
 import ru.practicum.shareit.item.dto.ItemWithCommentsAndBookings;
 import ru.practicum.shareit.item.mapper.ItemMapper;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.item.service.ItemService;
+import ru.practicum.shareit.pagination.CursorPage;
 
 import javax.validation.Valid;
 import javax.validation.constraints.Max;
 import javax.validation.constraints.Min;
 import java.util.List;
-import java.util.stream.Collectors;
 
 @RestController
 @RequestMapping("/items")
@@ -23,6 +25,8 @@ import java.util.stream.Collectors;
 public class ItemController {
 
     private static final String USER_ID = "X-Sharer-User-Id";
+    private static final String HAS_MORE = "X-Has-More";
+    private static final String NEXT_CURSOR = "X-Next-Cursor";
 
     private final ItemService itemService;
 
@@ -51,13 +55,39 @@ public class ItemController {
         return itemService.getUserItems(userId, from, size);
     }
 
+    // fuzzy=true допускает опечатки: одну в словах от 4 символов и две от 8. Движок index ищет по словарю
+    // триграмм, segmented сравнивает слова при просмотре, database - через pg_trgm только на PostgreSQL,
+    // на других базах запрос выполняется как точный
     @GetMapping("/search")
-    public List<ItemDto> searchItem(@RequestParam(name = "text") String text,
-                                    @RequestParam(defaultValue = "1") @Min(0) Integer from,
-                                    @RequestParam(defaultValue = "20") @Min(1) @Max(20) Integer size) {
-        return itemService.searchItem(text, from, size).stream()
-                .map(ItemMapper::toItemDto)
-                .collect(Collectors.toList());
+    public ResponseEntity<List<ItemDto>> searchItem(@RequestParam(name = "text") String text,
+                                                    @RequestParam(defaultValue = "0") @Min(0) Integer from,
+                                                    @RequestParam(defaultValue = "20") @Min(1) @Max(20) Integer size,
+                                                    @RequestParam(defaultValue = "false") boolean fuzzy) {
+        ItemSearchPage page = fuzzy
+                ? itemService.searchItemFuzzy(text, from, size)
+                : itemService.searchItem(text, from, size);
+        return ResponseEntity.ok()
+                .header(HAS_MORE, String.valueOf(page.isHasMore()))
+                .body(page.getItems());
+    }
+
+    @GetMapping("/suggest")
+    public List<String> suggestItemNames(@RequestParam(name = "prefix") String prefix,
+                                         @RequestParam(defaultValue = "10") @Min(1) @Max(10) Integer size) {
+        return itemService.suggestItemNames(prefix, size);
+    }
+
+    @GetMapping("/{itemId}/comments")
+    public ResponseEntity<List<CommentDto>> getComments(@PathVariable long itemId,
+                                                        @RequestHeader(USER_ID) long userId,
+                                                        @RequestParam(required = false) String cursor,
+                                                        @RequestParam(defaultValue = "10") @Min(1) @Max(50) Integer size) {
+        CursorPage<CommentDto> page = itemService.getComments(userId, itemId, cursor, size);
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+        if (page.getNextCursor() != null) {
+            response.header(NEXT_CURSOR, page.getNextCursor());
+        }
+        return response.body(page.getItems());
     }
 
     @PostMapping("/{itemId}/comment")
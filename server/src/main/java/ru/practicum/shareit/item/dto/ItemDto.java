@@ -1,5 +1,6 @@
 package ru.practicum.shareit.item.dto;
 
+import com.fasterxml.jackson.annotation.JsonInclude;
 import lombok.Builder;
 import lombok.Data;
 
@@ -12,4 +13,6 @@ public class ItemDto {
     private String description;
     private Boolean available;
     private Long requestId;
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private Double score;
 }
@@ -17,5 +17,6 @@ public class ItemWithCommentsAndBookings {
     private BookingShort lastBooking;
     private BookingShort nextBooking;
     private List<CommentDto> comments;
+    private long commentCount;
 
 }
@@ -28,6 +28,12 @@ public class ItemMapper {
                 .build();
     }
 
+    public static ItemDto toItemDto(Item item, Double score) {
+        return toItemDto(item).toBuilder()
+                .score(score)
+                .build();
+    }
+
     public static Item toItem(User user, ItemDto itemDto, ItemRequest request) {
         return Item.builder()
                 .id(itemDto.getId())
@@ -59,6 +65,7 @@ public class ItemMapper {
                 .lastBooking(last)
                 .nextBooking(next)
                 .comments(commentDto)
+                .commentCount(item.getCommentCount())
                 .build();
     }
 }
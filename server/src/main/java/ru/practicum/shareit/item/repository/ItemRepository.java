@@ -2,10 +2,12 @@ package ru.practicum.shareit.item.repository;
 
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.request.dto.ItemRequest;
 
+import java.util.Collection;
 import java.util.List;
 
 public interface ItemRepository extends JpaRepository<Item, Long> {
@@ -14,10 +16,51 @@ public interface ItemRepository extends JpaRepository<Item, Long> {
 
     List<Item> findAllByRequest(ItemRequest request);
 
-    @Query("SELECT i " +
-            "FROM Item AS i " +
-            "WHERE (lower(i.name) LIKE lower(concat('%', :text,'%')) " +
-            "OR lower(i.description) LIKE lower(concat('%', :text,'%'))) " +
-            "AND i.available=TRUE")
-    List<Item> searchWithPagination(String text, Pageable pageable);
+    @Modifying
+    @Query("UPDATE Item AS i " +
+            "SET i.commentCount = i.commentCount + :delta " +
+            "WHERE i.id = :itemId")
+    void incrementCommentCount(long itemId, long delta);
+
+    @Query(value = "SELECT i.id " +
+            "FROM items AS i " +
+            "WHERE i.id IN (:itemIds) " +
+            "ORDER BY i.id " +
+            "FOR UPDATE", nativeQuery = true)
+    List<Number> lockByIds(Collection<Long> itemIds);
+
+    // Только для PostgreSQL: search_vector и триграммные индексы создаются в schema-postgresql.sql,
+    // проверяется ItemRepositoryPostgresTest
+    @Query(value = "SELECT i.id " +
+            "FROM items AS i " +
+            "WHERE i.is_available " +
+            "AND (i.search_vector @@ plainto_tsquery('simple', :text) " +
+            "OR i.name ILIKE concat('%', :text, '%') " +
+            "OR i.description ILIKE concat('%', :text, '%')) " +
+            "ORDER BY ts_rank(i.search_vector, plainto_tsquery('simple', :text)) DESC, i.id " +
+            "LIMIT :limit OFFSET :offset", nativeQuery = true)
+    List<Number> searchIdsRanked(String text, int limit, int offset);
+
+    // Только для PostgreSQL: <% сравнивает запрос со словами названия и описания по триграммам pg_trgm
+    // (порог pg_trgm.word_similarity_threshold) и использует триграммные индексы
+    @Query(value = "SELECT i.id " +
+            "FROM items AS i " +
+            "WHERE i.is_available " +
+            "AND (i.search_vector @@ plainto_tsquery('simple', :text) " +
+            "OR i.name ILIKE concat('%', :text, '%') " +
+            "OR i.description ILIKE concat('%', :text, '%') " +
+            "OR :text <% i.name " +
+            "OR :text <% i.description) " +
+            "ORDER BY greatest(word_similarity(:text, i.name), word_similarity(:text, i.description)) DESC, i.id " +
+            "LIMIT :limit OFFSET :offset", nativeQuery = true)
+    List<Number> searchIdsFuzzy(String text, int limit, int offset);
+
+    @Query(value = "SELECT i.id " +
+            "FROM items AS i " +
+            "WHERE i.is_available = TRUE " +
+            "AND (lower(i.name) LIKE lower(concat('%', :text, '%')) " +
+            "OR lower(i.description) LIKE lower(concat('%', :text, '%'))) " +
+            "ORDER BY i.id " +
+            "LIMIT :limit OFFSET :offset", nativeQuery = true)
+    List<Number> searchIds(String text, int limit, int offset);
 }
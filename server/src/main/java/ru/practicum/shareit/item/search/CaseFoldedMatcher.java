@@ -0,0 +1,50 @@
+package ru.practicum.shareit.item.search;
+
+import java.util.Arrays;
+
+public final class CaseFoldedMatcher {
+
+    private static final int TABLE_SIZE = 256;
+    private static final int TABLE_MASK = TABLE_SIZE - 1;
+
+    private final char[] pattern;
+    private final int[] shifts = new int[TABLE_SIZE];
+
+    public CaseFoldedMatcher(String query) {
+        this.pattern = fold(query);
+        int length = pattern.length;
+        Arrays.fill(shifts, Math.max(length, 1));
+        for (int i = 0; i < length - 1; i++) {
+            shifts[pattern[i] & TABLE_MASK] = length - 1 - i;
+        }
+    }
+
+    public static char[] fold(String text) {
+        char[] folded = text.toCharArray();
+        for (int i = 0; i < folded.length; i++) {
+            folded[i] = fold(folded[i]);
+        }
+        return folded;
+    }
+
+    public static char fold(char c) {
+        return Character.toLowerCase(Character.toUpperCase(c));
+    }
+
+    public boolean matches(char[] text) {
+        int length = pattern.length;
+        int last = text.length - length;
+        int position = 0;
+        while (position <= last) {
+            int i = length - 1;
+            while (i >= 0 && text[position + i] == pattern[i]) {
+                i--;
+            }
+            if (i < 0) {
+                return true;
+            }
+            position += shifts[text[position + length - 1] & TABLE_MASK];
+        }
+        return false;
+    }
+}
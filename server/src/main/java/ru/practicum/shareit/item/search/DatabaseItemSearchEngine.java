@@ -0,0 +1,63 @@
+package ru.practicum.shareit.item.search;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.ItemRepository;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.stream.Collectors;
+
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "shareit.search.engine", havingValue = "database")
+public class DatabaseItemSearchEngine implements ItemSearchEngine {
+
+    private static final String POSTGRESQL = "postgresql";
+
+    private final ItemRepository itemRepository;
+    private final boolean fullTextSearch;
+
+    public DatabaseItemSearchEngine(ItemRepository itemRepository,
+                                    @Value("${spring.sql.init.platform:all}") String platform) {
+        this.itemRepository = itemRepository;
+        this.fullTextSearch = POSTGRESQL.equals(platform);
+        if (!fullTextSearch) {
+            log.warn("Нечёткий поиск требует pg_trgm, на платформе {} запросы с fuzzy=true ищут точно", platform);
+        }
+    }
+
+    @Override
+    public void index(Collection<Item> items) {
+        // tsvector-колонка и индексы обновляются самой базой данных
+    }
+
+    @Override
+    public List<ItemSearchHit> search(String text, int from, int size) {
+        return toHits(fullTextSearch
+                ? itemRepository.searchIdsRanked(text, size, from)
+                : itemRepository.searchIds(text, size, from));
+    }
+
+    @Override
+    public List<ItemSearchHit> searchFuzzy(String text, int from, int size) {
+        if (!fullTextSearch) {
+            return search(text, from, size);
+        }
+        return toHits(itemRepository.searchIdsFuzzy(text, size, from));
+    }
+
+    private List<ItemSearchHit> toHits(List<Number> ids) {
+        return ids.stream()
+                .map(id -> new ItemSearchHit(id.longValue(), null))
+                .collect(Collectors.toList());
+    }
+
+    @Override
+    public boolean requiresLoading() {
+        return false;
+    }
+}
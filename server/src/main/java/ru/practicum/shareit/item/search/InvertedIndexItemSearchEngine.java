@@ -0,0 +1,189 @@
+package ru.practicum.shareit.item.search;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.item.model.Item;
+
+import java.util.*;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.stream.Collectors;
+
+@Component
+@ConditionalOnProperty(name = "shareit.search.engine", havingValue = "index", matchIfMissing = true)
+public class InvertedIndexItemSearchEngine implements ItemSearchEngine {
+
+    private static final double K1 = 1.2;
+    private static final double B = 0.75;
+    private static final double NAME_WEIGHT = 2.0;
+    private static final double DESCRIPTION_WEIGHT = 1.0;
+
+    private static final Comparator<Map.Entry<Long, Double>> RANKING =
+            Comparator.<Map.Entry<Long, Double>>comparingDouble(Map.Entry::getValue)
+                    .thenComparing(Map.Entry::getKey, Comparator.reverseOrder());
+
+    private final NavigableMap<String, Map<Long, int[]>> postings = new TreeMap<>();
+    private final Map<Long, Document> documents = new HashMap<>();
+    private final TrigramIndex vocabulary = new TrigramIndex();
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private long totalNameLength;
+    private long totalDescriptionLength;
+
+    @Override
+    public void index(Collection<Item> items) {
+        lock.writeLock().lock();
+        try {
+            for (Item item : items) {
+                remove(item.getId());
+                if (Boolean.TRUE.equals(item.getAvailable())) {
+                    add(item);
+                }
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public List<ItemSearchHit> search(String text, int from, int size) {
+        return search(text, from, size, false);
+    }
+
+    @Override
+    public List<ItemSearchHit> searchFuzzy(String text, int from, int size) {
+        return search(text, from, size, true);
+    }
+
+    private List<ItemSearchHit> search(String text, int from, int size, boolean fuzzy) {
+        Set<String> queryTokens = new LinkedHashSet<>(ItemTokenizer.tokenize(text));
+        if (queryTokens.isEmpty()) {
+            return new ArrayList<>();
+        }
+        lock.readLock().lock();
+        try {
+            Map<Long, Double> scores = null;
+            for (String token : queryTokens) {
+                Map<Long, Double> tokenScores = score(terms(token, fuzzy));
+                scores = scores == null ? tokenScores : intersect(scores, tokenScores);
+                if (scores.isEmpty()) {
+                    return new ArrayList<>();
+                }
+            }
+            return top(scores, from, size);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private void add(Item item) {
+        List<String> nameTokens = ItemTokenizer.tokenize(item.getName());
+        List<String> descriptionTokens = ItemTokenizer.tokenize(item.getDescription());
+        Map<String, int[]> frequencies = new HashMap<>();
+        nameTokens.forEach(token -> frequencies.computeIfAbsent(token, key -> new int[2])[0]++);
+        descriptionTokens.forEach(token -> frequencies.computeIfAbsent(token, key -> new int[2])[1]++);
+        documents.put(item.getId(), new Document(nameTokens.size(), descriptionTokens.size(), frequencies.keySet()));
+        totalNameLength += nameTokens.size();
+        totalDescriptionLength += descriptionTokens.size();
+        frequencies.forEach((token, frequency) -> postings.computeIfAbsent(token, key -> {
+            vocabulary.add(key);
+            return new HashMap<>();
+        }).put(item.getId(), frequency));
+    }
+
+    private void remove(long itemId) {
+        Document document = documents.remove(itemId);
+        if (document == null) {
+            return;
+        }
+        totalNameLength -= document.nameLength;
+        totalDescriptionLength -= document.descriptionLength;
+        for (String token : document.tokens) {
+            Map<Long, int[]> frequencies = postings.get(token);
+            frequencies.remove(itemId);
+            if (frequencies.isEmpty()) {
+                postings.remove(token);
+                vocabulary.remove(token);
+            }
+        }
+    }
+
+    private Map<String, Double> terms(String token, boolean fuzzy) {
+        Map<String, Double> terms = new HashMap<>();
+        postings.subMap(token, true, token + Character.MAX_VALUE, false).keySet()
+                .forEach(term -> terms.put(term, 1.0));
+        int maxDistance = fuzzy ? TrigramIndex.maxDistance(token) : 0;
+        if (maxDistance > 0) {
+            vocabulary.similar(token, maxDistance)
+                    .forEach((term, distance) -> terms.merge(term, 1.0 / (1 + distance), Math::max));
+        }
+        return terms;
+    }
+
+    private Map<Long, Double> score(Map<String, Double> terms) {
+        int documentCount = documents.size();
+        double averageNameLength = Math.max(1.0, (double) totalNameLength / documentCount);
+        double averageDescriptionLength = Math.max(1.0, (double) totalDescriptionLength / documentCount);
+        Map<Long, Double> scores = new HashMap<>();
+        terms.forEach((term, boost) -> {
+            Map<Long, int[]> frequencies = postings.get(term);
+            int documentFrequency = frequencies.size();
+            double idf = Math.log(1 + (documentCount - documentFrequency + 0.5) / (documentFrequency + 0.5));
+            frequencies.forEach((itemId, frequency) -> {
+                Document document = documents.get(itemId);
+                double weighted = NAME_WEIGHT * frequency[0]
+                        / (1 - B + B * document.nameLength / averageNameLength)
+                        + DESCRIPTION_WEIGHT * frequency[1]
+                        / (1 - B + B * document.descriptionLength / averageDescriptionLength);
+                scores.merge(itemId, boost * idf * weighted / (K1 + weighted), Double::sum);
+            });
+        });
+        return scores;
+    }
+
+    private Map<Long, Double> intersect(Map<Long, Double> first, Map<Long, Double> second) {
+        Map<Long, Double> smaller = first.size() <= second.size() ? first : second;
+        Map<Long, Double> larger = smaller == first ? second : first;
+        Map<Long, Double> scores = new HashMap<>();
+        smaller.forEach((itemId, score) -> {
+            Double other = larger.get(itemId);
+            if (other != null) {
+                scores.put(itemId, score + other);
+            }
+        });
+        return scores;
+    }
+
+    private List<ItemSearchHit> top(Map<Long, Double> scores, int from, int size) {
+        if (size <= 0) {
+            return new ArrayList<>();
+        }
+        int limit = from + size;
+        PriorityQueue<Map.Entry<Long, Double>> heap = new PriorityQueue<>(Math.min(limit, scores.size()) + 1, RANKING);
+        for (Map.Entry<Long, Double> entry : scores.entrySet()) {
+            if (heap.size() < limit) {
+                heap.add(entry);
+            } else if (RANKING.compare(entry, heap.peek()) > 0) {
+                heap.poll();
+                heap.add(entry);
+            }
+        }
+        List<Map.Entry<Long, Double>> ranked = new ArrayList<>(heap);
+        ranked.sort(RANKING.reversed());
+        return ranked.stream()
+                .skip(from)
+                .map(entry -> new ItemSearchHit(entry.getKey(), entry.getValue()))
+                .collect(Collectors.toList());
+    }
+
+    private static final class Document {
+        private final int nameLength;
+        private final int descriptionLength;
+        private final Set<String> tokens;
+
+        private Document(int nameLength, int descriptionLength, Set<String> tokens) {
+            this.nameLength = nameLength;
+            this.descriptionLength = descriptionLength;
+            this.tokens = tokens;
+        }
+    }
+}
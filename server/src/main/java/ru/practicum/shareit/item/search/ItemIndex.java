@@ -0,0 +1,19 @@
+package ru.practicum.shareit.item.search;
+
+import ru.practicum.shareit.item.model.Item;
+
+import java.util.Collection;
+import java.util.List;
+
+public interface ItemIndex {
+
+    void index(Collection<Item> items);
+
+    default void index(Item item) {
+        index(List.of(item));
+    }
+
+    default boolean requiresLoading() {
+        return true;
+    }
+}
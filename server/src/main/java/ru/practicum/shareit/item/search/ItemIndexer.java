@@ -0,0 +1,100 @@
+package ru.practicum.shareit.item.search;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.ItemRepository;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class ItemIndexer {
+
+    private static final int PAGE_SIZE = 1000;
+
+    private final ItemRepository itemRepository;
+    private final List<ItemIndex> itemIndexes;
+    private final SearchResultCache searchResultCache;
+    // id вещей, проиндексированных по изменениям во время начальной загрузки
+    private final Set<Long> indexedDuringLoad = new HashSet<>();
+    private boolean loading = true;
+
+    public void index(Item item) {
+        index(item, null);
+    }
+
+    public void index(Item item, Item previous) {
+        // откат транзакции не должен оставлять в индексе несохранённые данные
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    apply(item, previous);
+                }
+            });
+        } else {
+            apply(item, previous);
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        List<ItemIndex> indexesToLoad = itemIndexes.stream()
+                .filter(ItemIndex::requiresLoading)
+                .collect(Collectors.toList());
+        if (indexesToLoad.isEmpty()) {
+            finishLoading();
+            return;
+        }
+        Pageable pageable = PageRequest.of(0, PAGE_SIZE, Sort.by(Sort.Direction.ASC, "id"));
+        long count = 0;
+        Slice<Item> page;
+        try {
+            do {
+                page = itemRepository.findAll(pageable);
+                loadPage(indexesToLoad, page.getContent());
+                count += page.getNumberOfElements();
+                pageable = page.nextPageable();
+            } while (page.hasNext());
+        } finally {
+            finishLoading();
+        }
+        log.info("Поисковые индексы построены, обработано вещей: {}", count);
+    }
+
+    private synchronized void apply(Item item, Item previous) {
+        if (loading) {
+            indexedDuringLoad.add(item.getId());
+        }
+        itemIndexes.forEach(itemIndex -> itemIndex.index(item));
+        searchResultCache.invalidate(item, previous);
+    }
+
+    // Страница могла быть прочитана до коммита изменения вещи, поэтому более свежие данные из индекса
+    // не перезаписываются
+    private synchronized void loadPage(List<ItemIndex> indexesToLoad, List<Item> items) {
+        List<Item> unchanged = items.stream()
+                .filter(item -> !indexedDuringLoad.contains(item.getId()))
+                .collect(Collectors.toList());
+        indexesToLoad.forEach(itemIndex -> itemIndex.index(unchanged));
+    }
+
+    private synchronized void finishLoading() {
+        loading = false;
+        indexedDuringLoad.clear();
+    }
+}
@@ -0,0 +1,180 @@
+package ru.practicum.shareit.item.search;
+
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.item.model.Item;
+
+import java.util.*;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.stream.Collectors;
+
+@Component
+public class ItemNameSuggester implements ItemIndex {
+
+    public static final int MAX_SUGGESTIONS = 10;
+
+    private static final Comparator<Node> BY_POPULARITY = Comparator.<Node>comparingInt(node -> node.count)
+            .reversed()
+            .thenComparing(node -> node.token);
+
+    private final Node root = new Node("");
+    private final Map<Long, Set<String>> itemTokens = new HashMap<>();
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    @Override
+    public void index(Collection<Item> items) {
+        lock.writeLock().lock();
+        try {
+            for (Item item : items) {
+                Set<String> oldTokens = itemTokens.remove(item.getId());
+                if (oldTokens != null) {
+                    oldTokens.forEach(token -> update(token, -1));
+                }
+                if (Boolean.TRUE.equals(item.getAvailable())) {
+                    Set<String> tokens = new HashSet<>(ItemTokenizer.tokenize(item.getName()));
+                    itemTokens.put(item.getId(), tokens);
+                    tokens.forEach(token -> update(token, 1));
+                }
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public List<String> suggest(String prefix, int limit) {
+        String normalized = prefix.trim().toLowerCase();
+        if (normalized.isEmpty()) {
+            return new ArrayList<>();
+        }
+        lock.readLock().lock();
+        try {
+            Node node = find(normalized);
+            if (node == null) {
+                return new ArrayList<>();
+            }
+            return node.top.stream()
+                    .limit(Math.min(limit, MAX_SUGGESTIONS))
+                    .map(top -> top.token)
+                    .collect(Collectors.toList());
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private Node find(String prefix) {
+        Node node = root;
+        int position = 0;
+        while (position < prefix.length()) {
+            Node child = node.children.get(prefix.charAt(position));
+            if (child == null) {
+                return null;
+            }
+            int common = commonPrefix(child.label, prefix, position);
+            if (position + common == prefix.length()) {
+                return child;
+            }
+            if (common < child.label.length()) {
+                return null;
+            }
+            position += common;
+            node = child;
+        }
+        return node;
+    }
+
+    private void update(String token, int delta) {
+        Deque<Node> path = new ArrayDeque<>();
+        path.push(root);
+        Node node = root;
+        int position = 0;
+        while (position < token.length()) {
+            char first = token.charAt(position);
+            Node child = node.children.get(first);
+            if (child == null) {
+                if (delta < 0) {
+                    return;
+                }
+                child = new Node(token.substring(position));
+                node.children.put(first, child);
+            } else {
+                int common = commonPrefix(child.label, token, position);
+                if (common < child.label.length()) {
+                    if (delta < 0) {
+                        return;
+                    }
+                    child = split(node, child, common);
+                }
+            }
+            position += child.label.length();
+            node = child;
+            path.push(node);
+        }
+        node.count += delta;
+        node.token = token;
+        while (!path.isEmpty()) {
+            Node current = path.pop();
+            Node parent = path.peek();
+            if (parent != null) {
+                compact(parent, current);
+            }
+            recomputeTop(current);
+        }
+    }
+
+    private Node split(Node parent, Node child, int length) {
+        Node middle = new Node(child.label.substring(0, length));
+        child.label = child.label.substring(length);
+        middle.children.put(child.label.charAt(0), child);
+        parent.children.put(middle.label.charAt(0), middle);
+        return middle;
+    }
+
+    private void compact(Node parent, Node node) {
+        if (node.count > 0) {
+            return;
+        }
+        if (node.children.isEmpty()) {
+            parent.children.remove(node.label.charAt(0));
+        } else if (node.children.size() == 1) {
+            Node child = node.children.values().iterator().next();
+            node.label = node.label + child.label;
+            node.children = child.children;
+            node.count = child.count;
+            node.token = child.token;
+            node.top = child.top;
+        }
+    }
+
+    private void recomputeTop(Node node) {
+        List<Node> candidates = new ArrayList<>();
+        if (node.count > 0) {
+            candidates.add(node);
+        }
+        node.children.values().forEach(child -> candidates.addAll(child.top));
+        candidates.sort(BY_POPULARITY);
+        node.top = candidates.size() > MAX_SUGGESTIONS
+                ? new ArrayList<>(candidates.subList(0, MAX_SUGGESTIONS))
+                : candidates;
+    }
+
+    private static int commonPrefix(String label, String text, int offset) {
+        int length = Math.min(label.length(), text.length() - offset);
+        int common = 0;
+        while (common < length && label.charAt(common) == text.charAt(offset + common)) {
+            common++;
+        }
+        return common;
+    }
+
+    private static final class Node {
+        private String label;
+        private Map<Character, Node> children = new HashMap<>();
+        private int count;
+        private String token;
+        private List<Node> top = new ArrayList<>();
+
+        private Node(String label) {
+            this.label = label;
+        }
+    }
+}
@@ -0,0 +1,12 @@
+package ru.practicum.shareit.item.search;
+
+import java.util.List;
+
+public interface ItemSearchEngine extends ItemIndex {
+
+    List<ItemSearchHit> search(String text, int from, int size);
+
+    default List<ItemSearchHit> searchFuzzy(String text, int from, int size) {
+        return search(text, from, size);
+    }
+}
@@ -0,0 +1,11 @@
+package ru.practicum.shareit.item.search;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+@Data
+@AllArgsConstructor
+public class ItemSearchHit {
+    private long itemId;
+    private Double score;
+}
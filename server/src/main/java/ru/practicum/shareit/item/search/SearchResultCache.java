@@ -0,0 +1,209 @@
+package ru.practicum.shareit.item.search;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.item.model.Item;
+
+import java.util.*;
+import java.util.function.Supplier;
+
+@Component
+public class SearchResultCache {
+
+    private static final String CACHE_NAME = "itemSearch";
+    private static final int ENTRY_OVERHEAD_BYTES = 96;
+    private static final int HIT_BYTES = 48;
+
+    private final boolean enabled;
+    private final long maxBytes;
+    private final LinkedHashMap<Key, List<ItemSearchHit>> entries = new LinkedHashMap<>(16, 0.75f, true);
+    private final Map<String, Set<Key>> keysByToken = new HashMap<>();
+    private final Map<Long, Set<Key>> keysByItem = new HashMap<>();
+    // страницы с оценками релевантности: idf и средняя длина полей меняются при любой записи в индекс
+    private final Set<Key> rankedKeys = new HashSet<>();
+    private final Counter hits;
+    private final Counter misses;
+    private final Counter evictions;
+    private final Counter invalidations;
+    private long bytes;
+    private long generation;
+
+    public SearchResultCache(MeterRegistry meterRegistry,
+                             @Value("${shareit.search.cache.enabled:true}") boolean enabled,
+                             @Value("${shareit.search.cache.max-bytes:16777216}") long maxBytes) {
+        this.enabled = enabled;
+        this.maxBytes = maxBytes;
+        this.hits = counter(meterRegistry, "cache.gets", "hit");
+        this.misses = counter(meterRegistry, "cache.gets", "miss");
+        this.evictions = counter(meterRegistry, "cache.evictions", null);
+        this.invalidations = counter(meterRegistry, "cache.invalidations", null);
+        Gauge.builder("cache.size", this, SearchResultCache::size)
+                .tag("cache", CACHE_NAME)
+                .register(meterRegistry);
+        Gauge.builder("cache.size.bytes", this, SearchResultCache::sizeInBytes)
+                .tag("cache", CACHE_NAME)
+                .register(meterRegistry);
+    }
+
+    public List<ItemSearchHit> getOrLoad(String text, int from, int size, Supplier<List<ItemSearchHit>> loader) {
+        if (!enabled) {
+            return loader.get();
+        }
+        Key key = new Key(text.toLowerCase(), from, size);
+        long loadGeneration;
+        synchronized (this) {
+            List<ItemSearchHit> cached = entries.get(key);
+            if (cached != null) {
+                hits.increment();
+                return cached;
+            }
+            loadGeneration = generation;
+        }
+        misses.increment();
+        List<ItemSearchHit> loaded = List.copyOf(loader.get());
+        synchronized (this) {
+            if (loadGeneration == generation && !entries.containsKey(key)) {
+                put(key, loaded);
+            }
+        }
+        return loaded;
+    }
+
+    public void invalidate(Item item) {
+        invalidate(item, null);
+    }
+
+    // previous - состояние вещи до изменения: запросы, которым она перестала соответствовать, тоже устаревают
+    public synchronized void invalidate(Item item, Item previous) {
+        generation++;
+        if (entries.isEmpty()) {
+            return;
+        }
+        Set<Key> keys = new HashSet<>(rankedKeys);
+        keys.addAll(keysByItem.getOrDefault(item.getId(), Set.of()));
+        Set<String> itemTokens = tokens(item);
+        if (previous != null) {
+            itemTokens.addAll(tokens(previous));
+        }
+        keysByToken.forEach((queryToken, tokenKeys) -> {
+            for (String itemToken : itemTokens) {
+                if (itemToken.contains(queryToken)) {
+                    keys.addAll(tokenKeys);
+                    break;
+                }
+            }
+        });
+        keys.forEach(key -> {
+            if (remove(key)) {
+                invalidations.increment();
+            }
+        });
+    }
+
+    private static Set<String> tokens(Item item) {
+        Set<String> tokens = new HashSet<>(ItemTokenizer.tokenize(item.getName()));
+        tokens.addAll(ItemTokenizer.tokenize(item.getDescription()));
+        return tokens;
+    }
+
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    public synchronized long sizeInBytes() {
+        return bytes;
+    }
+
+    private void put(Key key, List<ItemSearchHit> results) {
+        entries.put(key, results);
+        bytes += weight(key, results);
+        key.tokens.forEach(token -> keysByToken.computeIfAbsent(token, t -> new HashSet<>()).add(key));
+        results.forEach(hit -> keysByItem.computeIfAbsent(hit.getItemId(), i -> new HashSet<>()).add(key));
+        if (results.stream().anyMatch(hit -> hit.getScore() != null)) {
+            rankedKeys.add(key);
+        }
+        Iterator<Map.Entry<Key, List<ItemSearchHit>>> eldest = entries.entrySet().iterator();
+        while (bytes > maxBytes && eldest.hasNext()) {
+            Map.Entry<Key, List<ItemSearchHit>> evicted = eldest.next();
+            if (evicted.getKey().equals(key)) {
+                break;
+            }
+            eldest.remove();
+            unlink(evicted.getKey(), evicted.getValue());
+            evictions.increment();
+        }
+    }
+
+    private boolean remove(Key key) {
+        List<ItemSearchHit> results = entries.remove(key);
+        if (results == null) {
+            return false;
+        }
+        unlink(key, results);
+        return true;
+    }
+
+    private void unlink(Key key, List<ItemSearchHit> results) {
+        bytes -= weight(key, results);
+        key.tokens.forEach(token -> detach(keysByToken, token, key));
+        results.forEach(hit -> detach(keysByItem, hit.getItemId(), key));
+        rankedKeys.remove(key);
+    }
+
+    private static <K> void detach(Map<K, Set<Key>> index, K indexKey, Key key) {
+        Set<Key> keys = index.get(indexKey);
+        if (keys != null) {
+            keys.remove(key);
+            if (keys.isEmpty()) {
+                index.remove(indexKey);
+            }
+        }
+    }
+
+    private static long weight(Key key, List<ItemSearchHit> results) {
+        return ENTRY_OVERHEAD_BYTES + 2L * key.text.length() + (long) HIT_BYTES * results.size();
+    }
+
+    private static Counter counter(MeterRegistry meterRegistry, String name, String result) {
+        Counter.Builder builder = Counter.builder(name).tag("cache", CACHE_NAME);
+        if (result != null) {
+            builder.tag("result", result);
+        }
+        return builder.register(meterRegistry);
+    }
+
+    private static final class Key {
+        private final String text;
+        private final int from;
+        private final int size;
+        private final List<String> tokens;
+
+        private Key(String text, int from, int size) {
+            this.text = text;
+            this.from = from;
+            this.size = size;
+            List<String> textTokens = ItemTokenizer.tokenize(text);
+            this.tokens = textTokens.isEmpty() ? List.of("") : textTokens;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof Key)) {
+                return false;
+            }
+            Key other = (Key) o;
+            return from == other.from && size == other.size && text.equals(other.text);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(text, from, size);
+        }
+    }
+}
@@ -0,0 +1,155 @@
+package ru.practicum.shareit.item.search;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.item.model.Item;
+
+import javax.annotation.PreDestroy;
+import java.util.*;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.stream.Collectors;
+
+@Component
+@ConditionalOnProperty(name = "shareit.search.engine", havingValue = "segmented")
+public class SegmentedItemSearchEngine implements ItemSearchEngine {
+
+    public static final int SEGMENT_SIZE = 4096;
+
+    private final ForkJoinPool searchPool;
+    private volatile Segment[] segments = new Segment[0];
+
+    public SegmentedItemSearchEngine(@Value("${shareit.search.parallelism:0}") int parallelism) {
+        this.searchPool = new ForkJoinPool(parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors());
+    }
+
+    @Override
+    public synchronized void index(Collection<Item> items) {
+        TreeMap<Integer, SortedMap<Long, Entry>> changes = new TreeMap<>();
+        for (Item item : items) {
+            Entry entry = Boolean.TRUE.equals(item.getAvailable()) ? new Entry(item) : null;
+            changes.computeIfAbsent(segmentNumber(item.getId()), number -> new TreeMap<>())
+                    .put(item.getId(), entry);
+        }
+        if (changes.isEmpty()) {
+            return;
+        }
+        Segment[] updated = Arrays.copyOf(segments, Math.max(segments.length, changes.lastKey() + 1));
+        changes.forEach((number, segmentChanges) -> updated[number] = Segment.apply(updated[number], segmentChanges));
+        segments = updated;
+    }
+
+    @Override
+    public List<ItemSearchHit> search(String text, int from, int size) {
+        return search(text, from, size, List.of());
+    }
+
+    // Вещь подходит, если совпала подстрока запроса или каждое слово запроса - с допустимым числом опечаток
+    @Override
+    public List<ItemSearchHit> searchFuzzy(String text, int from, int size) {
+        return search(text, from, size, ItemTokenizer.tokenize(text));
+    }
+
+    private List<ItemSearchHit> search(String text, int from, int size, List<String> fuzzyTokens) {
+        CaseFoldedMatcher matcher = new CaseFoldedMatcher(text);
+        int limit = from + size;
+        List<ForkJoinTask<List<Long>>> tasks = new ArrayList<>();
+        for (Segment segment : segments) {
+            if (segment != null) {
+                tasks.add(searchPool.submit(() -> segment.search(matcher, fuzzyTokens, limit)));
+            }
+        }
+        List<Long> ids = new ArrayList<>();
+        for (ForkJoinTask<List<Long>> task : tasks) {
+            List<Long> segmentIds = task.join();
+            if (ids.size() < limit) {
+                ids.addAll(segmentIds.subList(0, Math.min(segmentIds.size(), limit - ids.size())));
+            }
+        }
+        return ids.stream()
+                .skip(from)
+                .map(id -> new ItemSearchHit(id, null))
+                .collect(Collectors.toList());
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        searchPool.shutdown();
+    }
+
+    private static int segmentNumber(long itemId) {
+        return (int) (itemId / SEGMENT_SIZE);
+    }
+
+    private static final class Segment {
+        private final Entry[] entries;
+
+        private Segment(Entry[] entries) {
+            this.entries = entries;
+        }
+
+        private static Segment apply(Segment segment, SortedMap<Long, Entry> changes) {
+            TreeMap<Long, Entry> merged = new TreeMap<>();
+            if (segment != null) {
+                for (Entry entry : segment.entries) {
+                    merged.put(entry.id, entry);
+                }
+            }
+            changes.forEach((id, entry) -> {
+                if (entry == null) {
+                    merged.remove(id);
+                } else {
+                    merged.put(id, entry);
+                }
+            });
+            return merged.isEmpty() ? null : new Segment(merged.values().toArray(new Entry[0]));
+        }
+
+        private List<Long> search(CaseFoldedMatcher matcher, List<String> fuzzyTokens, int limit) {
+            List<Long> ids = new ArrayList<>();
+            for (Entry entry : entries) {
+                if (matcher.matches(entry.name) || matcher.matches(entry.description)
+                        || !fuzzyTokens.isEmpty() && entry.matchesFuzzy(fuzzyTokens)) {
+                    ids.add(entry.id);
+                    if (ids.size() == limit) {
+                        break;
+                    }
+                }
+            }
+            return ids;
+        }
+    }
+
+    private static final class Entry {
+        private final long id;
+        private final char[] name;
+        private final char[] description;
+
+        private Entry(Item item) {
+            this.id = item.getId();
+            this.name = CaseFoldedMatcher.fold(item.getName());
+            this.description = CaseFoldedMatcher.fold(item.getDescription());
+        }
+
+        // слова вещи не хранятся, чтобы точный поиск не платил за нечёткий памятью
+        private boolean matchesFuzzy(List<String> queryTokens) {
+            List<String> terms = ItemTokenizer.tokenize(new String(name));
+            terms.addAll(ItemTokenizer.tokenize(new String(description)));
+            for (String token : queryTokens) {
+                int maxDistance = TrigramIndex.maxDistance(token);
+                boolean found = false;
+                for (String term : terms) {
+                    if (term.startsWith(token) || TrigramIndex.distance(token, term, maxDistance) <= maxDistance) {
+                        found = true;
+                        break;
+                    }
+                }
+                if (!found) {
+                    return false;
+                }
+            }
+            return true;
+        }
+    }
+}
@@ -0,0 +1,89 @@
+package ru.practicum.shareit.item.search;
+
+import java.util.*;
+
+public class TrigramIndex {
+
+    private static final char BOUNDARY = '\u0002';
+    private static final int GRAM_LENGTH = 3;
+    private static final int ONE_TYPO_MIN_LENGTH = 4;
+    private static final int TWO_TYPOS_MIN_LENGTH = 8;
+
+    private final Map<String, Set<String>> termsByGram = new HashMap<>();
+
+    // сколько опечаток допускается в слове запроса: короткие слова ищутся только точно
+    public static int maxDistance(String token) {
+        return token.length() < ONE_TYPO_MIN_LENGTH ? 0 : token.length() < TWO_TYPOS_MIN_LENGTH ? 1 : 2;
+    }
+
+    public void add(String term) {
+        grams(term).forEach(gram -> termsByGram.computeIfAbsent(gram, key -> new HashSet<>()).add(term));
+    }
+
+    public void remove(String term) {
+        for (String gram : grams(term)) {
+            Set<String> terms = termsByGram.get(gram);
+            if (terms != null) {
+                terms.remove(term);
+                if (terms.isEmpty()) {
+                    termsByGram.remove(gram);
+                }
+            }
+        }
+    }
+
+    public Map<String, Integer> similar(String token, int maxDistance) {
+        Set<String> tokenGrams = grams(token);
+        Map<String, Integer> shared = new HashMap<>();
+        for (String gram : tokenGrams) {
+            termsByGram.getOrDefault(gram, Set.of()).forEach(term -> shared.merge(term, 1, Integer::sum));
+        }
+        int required = tokenGrams.size() - GRAM_LENGTH * maxDistance;
+        Map<String, Integer> matches = new HashMap<>();
+        shared.forEach((term, count) -> {
+            if (count >= required && Math.abs(term.length() - token.length()) <= maxDistance) {
+                int distance = distance(token, term, maxDistance);
+                if (distance <= maxDistance) {
+                    matches.put(term, distance);
+                }
+            }
+        });
+        return matches;
+    }
+
+    static int distance(String first, String second, int maxDistance) {
+        if (Math.abs(first.length() - second.length()) > maxDistance) {
+            return maxDistance + 1;
+        }
+        int[] previous = new int[second.length() + 1];
+        int[] current = new int[second.length() + 1];
+        for (int j = 0; j <= second.length(); j++) {
+            previous[j] = j;
+        }
+        for (int i = 1; i <= first.length(); i++) {
+            current[0] = i;
+            int rowMinimum = current[0];
+            for (int j = 1; j <= second.length(); j++) {
+                int substitution = previous[j - 1] + (first.charAt(i - 1) == second.charAt(j - 1) ? 0 : 1);
+                current[j] = Math.min(substitution, Math.min(previous[j], current[j - 1]) + 1);
+                rowMinimum = Math.min(rowMinimum, current[j]);
+            }
+            if (rowMinimum > maxDistance) {
+                return maxDistance + 1;
+            }
+            int[] swap = previous;
+            previous = current;
+            current = swap;
+        }
+        return Math.min(previous[second.length()], maxDistance + 1);
+    }
+
+    private static Set<String> grams(String term) {
+        String padded = BOUNDARY + term + BOUNDARY;
+        Set<String> grams = new HashSet<>();
+        for (int i = 0; i + GRAM_LENGTH <= padded.length(); i++) {
+            grams.add(padded.substring(i, i + GRAM_LENGTH));
+        }
+        return grams;
+    }
+}
@@ -0,0 +1,90 @@
+package ru.practicum.shareit.item.service;
+
+import lombok.AllArgsConstructor;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.booking.dto.BookingShort;
+import ru.practicum.shareit.booking.enums.BookingStatus;
+import ru.practicum.shareit.booking.model.ItemBookingSummary;
+import ru.practicum.shareit.booking.service.ItemBookingSummaryService;
+import ru.practicum.shareit.item.comment.CommentDto;
+import ru.practicum.shareit.item.comment.CommentMapper;
+import ru.practicum.shareit.item.comment.CommentRepository;
+import ru.practicum.shareit.item.comment.CommentView;
+import ru.practicum.shareit.item.dto.ItemWithCommentsAndBookings;
+import ru.practicum.shareit.item.mapper.ItemMapper;
+import ru.practicum.shareit.item.model.Item;
+
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.stream.Collectors;
+
+@Component
+@AllArgsConstructor
+public class ItemAssembler {
+
+    private static final int INLINE_COMMENTS_LIMIT = 10;
+
+    private final ItemBookingSummaryService itemBookingSummaryService;
+    private final CommentRepository commentRepository;
+    private final ItemLookupExecutor itemLookupExecutor;
+
+    public List<ItemWithCommentsAndBookings> assemble(List<Item> items, long userId) {
+        return assembleViews(items, userId).stream()
+                .map(ItemView::getItem)
+                .collect(Collectors.toList());
+    }
+
+    public ItemView assembleView(Item item, long userId) {
+        return assembleViews(List.of(item), userId).get(0);
+    }
+
+    private List<ItemView> assembleViews(List<Item> items, long userId) {
+        if (items.isEmpty()) {
+            return new ArrayList<>();
+        }
+        List<Long> itemIds = items.stream()
+                .map(Item::getId)
+                .collect(Collectors.toList());
+        List<Long> ownedItemIds = items.stream()
+                .filter(item -> item.getOwner().getId() == userId)
+                .map(Item::getId)
+                .collect(Collectors.toList());
+        CompletableFuture<Map<Long, ItemBookingSummary>> summariesLookup = ownedItemIds.isEmpty()
+                ? CompletableFuture.completedFuture(Map.of())
+                : itemLookupExecutor.submit(() -> itemBookingSummaryService.findByItemIds(ownedItemIds));
+        CompletableFuture<Map<Long, List<CommentDto>>> commentsLookup = itemLookupExecutor.submit(() ->
+                commentRepository.findNewestByItemIds(itemIds, INLINE_COMMENTS_LIMIT).stream()
+                        .collect(Collectors.groupingBy(CommentView::getItemId,
+                                Collectors.mapping(CommentMapper::toCommentDto, Collectors.toList()))));
+        Map<Long, ItemBookingSummary> bookingSummaries = ItemLookupExecutor.join(summariesLookup);
+        Map<Long, List<CommentDto>> comments = ItemLookupExecutor.join(commentsLookup);
+        return items.stream()
+                .map(item -> {
+                    ItemBookingSummary summary = bookingSummaries.get(item.getId());
+                    return new ItemView(toItemWithTime(item, summary,
+                            comments.getOrDefault(item.getId(), new ArrayList<>())),
+                            summary == null ? null : summary.getNextStart());
+                })
+                .collect(Collectors.toList());
+    }
+
+    private ItemWithCommentsAndBookings toItemWithTime(Item item, ItemBookingSummary summary, List<CommentDto> comments) {
+        if (summary == null) {
+            return ItemMapper.toItemWithTime(item, null, null, comments);
+        }
+        return ItemMapper.toItemWithTime(item,
+                bookingShort(summary.getLastBookingId(), summary.getLastBookerId(), summary.getLastStatus()),
+                bookingShort(summary.getNextBookingId(), summary.getNextBookerId(), summary.getNextStatus()),
+                comments);
+    }
+
+    private BookingShort bookingShort(Long bookingId, Long bookerId, BookingStatus status) {
+        if (bookingId == null || status == BookingStatus.REJECTED) {
+            return null;
+        }
+        return BookingShort.builder()
+                .id(bookingId)
+                .bookerId(bookerId)
+                .build();
+    }
+}
@@ -0,0 +1,72 @@
+package ru.practicum.shareit.item.service;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PreDestroy;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+@Component
+public class ItemLookupExecutor {
+
+    private final boolean parallel;
+    private final ThreadPoolExecutor executor;
+    // свой лимит соединений, чтобы параллельные выборки не вытесняли остальные запросы из пула
+    private final Semaphore connections;
+
+    public ItemLookupExecutor(@Value("${shareit.item.lookup.parallel:false}") boolean parallel,
+                              @Value("${shareit.item.lookup.threads:8}") int threads,
+                              @Value("${shareit.item.lookup.max-connections:4}") int maxConnections) {
+        this.parallel = parallel;
+        this.connections = new Semaphore(maxConnections);
+        AtomicInteger threadNumber = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(threads, threads, 60, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(threads * 16),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "item-lookup-" + threadNumber.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.CallerRunsPolicy());
+        this.executor.allowCoreThreadTimeOut(true);
+    }
+
+    public <T> CompletableFuture<T> submit(Supplier<T> lookup) {
+        if (!parallel) {
+            return CompletableFuture.completedFuture(lookup.get());
+        }
+        return CompletableFuture.supplyAsync(() -> withConnection(lookup), executor);
+    }
+
+    public static <T> T join(CompletableFuture<T> future) {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw e;
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdown();
+    }
+
+    private <T> T withConnection(Supplier<T> lookup) {
+        try {
+            connections.acquire();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new CompletionException(e);
+        }
+        try {
+            return lookup.get();
+        } finally {
+            connections.release();
+        }
+    }
+}
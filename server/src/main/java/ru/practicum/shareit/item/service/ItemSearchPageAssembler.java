@@ -0,0 +1,58 @@
+package ru.practicum.shareit.item.service;
+
+import lombok.AllArgsConstructor;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.dto.ItemSearchPage;
+import ru.practicum.shareit.item.mapper.ItemMapper;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.item.search.ItemSearchEngine;
+import ru.practicum.shareit.item.search.ItemSearchHit;
+import ru.practicum.shareit.item.search.SearchResultCache;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+@Component
+@AllArgsConstructor
+public class ItemSearchPageAssembler {
+
+    private final ItemSearchEngine itemSearchEngine;
+    private final SearchResultCache searchResultCache;
+    private final ItemRepository itemRepository;
+
+    public ItemSearchPage search(String text, int from, int size) {
+        if (text.isBlank()) {
+            return new ItemSearchPage(new ArrayList<>(), false);
+        }
+        // ищется на один элемент больше страницы, чтобы определить признак hasMore
+        return toPage(searchResultCache.getOrLoad(text, from, size + 1,
+                () -> itemSearchEngine.search(text, from, size + 1)), size);
+    }
+
+    public ItemSearchPage searchFuzzy(String text, int from, int size) {
+        if (text.isBlank()) {
+            return new ItemSearchPage(new ArrayList<>(), false);
+        }
+        return toPage(itemSearchEngine.searchFuzzy(text, from, size + 1), size);
+    }
+
+    private ItemSearchPage toPage(List<ItemSearchHit> hits, int size) {
+        boolean hasMore = hits.size() > size;
+        List<ItemSearchHit> window = hasMore ? hits.subList(0, size) : hits;
+        List<Long> ids = window.stream()
+                .map(ItemSearchHit::getItemId)
+                .collect(Collectors.toList());
+        Map<Long, Item> items = itemRepository.findAllById(ids).stream()
+                .collect(Collectors.toMap(Item::getId, Function.identity()));
+        List<ItemDto> itemDtos = window.stream()
+                .filter(hit -> items.containsKey(hit.getItemId()))
+                .map(hit -> ItemMapper.toItemDto(items.get(hit.getItemId()), hit.getScore()))
+                .collect(Collectors.toList());
+        return new ItemSearchPage(itemDtos, hasMore);
+    }
+}
@@ -1,10 +1,13 @@
 package ru.practicum.shareit.item.service;
 
 import ru.practicum.shareit.item.comment.Comment;
+import ru.practicum.shareit.item.comment.CommentDto;
 import ru.practicum.shareit.item.comment.CommentDtoInput;
 import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.dto.ItemSearchPage;
 import ru.practicum.shareit.item.dto.ItemWithCommentsAndBookings;
 import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.pagination.CursorPage;
 
 import java.util.List;
 
@@ -18,7 +21,13 @@ public interface ItemService {
 
     List<ItemWithCommentsAndBookings> getUserItems(Long userId, Integer from, Integer size);
 
-    List<Item> searchItem(String text, Integer from, Integer size);
+    ItemSearchPage searchItem(String text, Integer from, Integer size);
+
+    ItemSearchPage searchItemFuzzy(String text, Integer from, Integer size);
+
+    List<String> suggestItemNames(String prefix, Integer size);
 
     Comment addComment(long userId, long itemId, CommentDtoInput commentDtoInput);
+
+    CursorPage<CommentDto> getComments(long userId, long itemId, String cursor, Integer size);
 }
@@ -7,27 +7,27 @@ import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
-import ru.practicum.shareit.booking.dto.BookingShort;
-import ru.practicum.shareit.booking.enums.BookingStatus;
-import ru.practicum.shareit.booking.mapper.BookingMapper;
-import ru.practicum.shareit.booking.model.Booking;
-import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.booking.timeline.BookingTimelineCache;
 import ru.practicum.shareit.exception.NotFoundException;
 import ru.practicum.shareit.exception.ValidationException;
 import ru.practicum.shareit.item.comment.*;
 import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.dto.ItemSearchPage;
 import ru.practicum.shareit.item.dto.ItemWithCommentsAndBookings;
 import ru.practicum.shareit.item.mapper.ItemMapper;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.item.search.ItemIndexer;
+import ru.practicum.shareit.item.search.ItemNameSuggester;
+import ru.practicum.shareit.pagination.CursorPage;
+import ru.practicum.shareit.pagination.KeysetCursor;
 import ru.practicum.shareit.request.ItemRequestRepository;
 import ru.practicum.shareit.request.dto.ItemRequest;
 import ru.practicum.shareit.user.model.User;
 import ru.practicum.shareit.user.service.UserService;
 
 import java.time.LocalDateTime;
-import java.util.ArrayList;
-import java.util.List;
+import java.util.*;
 import java.util.stream.Collectors;
 
 @Slf4j
@@ -38,10 +38,22 @@ public class ItemServiceImpl implements ItemService {
     private final UserService userService;
     private final CommentRepository commentRepository;
 
-    private final BookingRepository bookingRepository;
+    private final BookingTimelineCache bookingTimelineCache;
 
     private final ItemRequestRepository itemRequestRepository;
 
+    private final ItemIndexer itemIndexer;
+
+    private final ItemNameSuggester itemNameSuggester;
+
+    private final ItemAssembler itemAssembler;
+
+    private final ItemSearchPageAssembler itemSearchPageAssembler;
+
+    private final ItemViewCache itemViewCache;
+
+    private final CommentWriteQueue commentWriteQueue;
+
     @Override
     public Item addItem(long userId, ItemDto itemDto) {
         checkUser(userId);
@@ -55,7 +67,9 @@ public class ItemServiceImpl implements ItemService {
         } else {
             actualItem = ItemMapper.toItemWithId(itemDto.getId(), user, itemDto);
         }
-        return itemRepository.save(actualItem);
+        Item savedItem = itemRepository.save(actualItem);
+        itemIndexer.index(savedItem);
+        return savedItem;
     }
 
     @Override
@@ -78,7 +92,16 @@ public class ItemServiceImpl implements ItemService {
         if (item.getAvailable() == null) {
             item.setAvailable(oldItem.getAvailable());
         }
+        item.setCommentCount(oldItem.getCommentCount());
+        // save сливает изменения в oldItem, поэтому прежние поля для поискового кэша копируются заранее
+        Item previous = Item.builder()
+                .id(id)
+                .name(oldItem.getName())
+                .description(oldItem.getDescription())
+                .build();
         itemRepository.save(item);
+        itemIndexer.index(item, previous);
+        itemViewCache.invalidate(id);
         log.info("Обновлены данные вещи");
         return item;
     }
@@ -86,36 +109,30 @@ public class ItemServiceImpl implements ItemService {
     @Override
     public ItemWithCommentsAndBookings getItem(long id, long userId) {
         checkUser(userId);
-        Item item = itemRepository.findById(id)
-                .orElseThrow(() -> new NotFoundException("Вещи с таким id = " + id + "  не существует"));
-        return addNewEntity(item, userId);
+        return itemViewCache.getOrLoad(id, userId, () -> itemRepository.findById(id)
+                .orElseThrow(() -> new NotFoundException("Вещи с таким id = " + id + "  не существует")));
     }
 
     @Override
     public List<ItemWithCommentsAndBookings> getUserItems(Long userId, Integer from, Integer size) {
         User user = userService.getUserById(userId);
         Pageable pageable = PageRequest.of(from / size, size, Sort.by(Sort.Direction.ASC, "id"));
-        return itemRepository.findAllByOwnerId(userId, pageable)
-                .stream()
-                .map(item -> addNewEntity(item, userId))
-                .collect(Collectors.toList());
+        return itemAssembler.assemble(itemRepository.findAllByOwnerId(userId, pageable), userId);
     }
 
     @Override
-    public List<Item> searchItem(String text, Integer from, Integer size) {
-        if (text.isEmpty()) {
-            return new ArrayList<>();
-        }
-        List<Item> items = itemRepository.findAll();
-        List<Item> returnItemList = items.stream()
-                .filter(item -> (item.getName().toLowerCase().contains(text.toLowerCase()) ||
-                        item.getDescription().toLowerCase().contains(text.toLowerCase())))
-                .filter(item -> item.getAvailable().equals(true))
-                .collect(Collectors.toList());
-        returnItemList.subList(PageRequest.of(from, size).getPageNumber(),
-                Math.min(returnItemList.size(), PageRequest.of(from, size).getPageNumber() +
-                        PageRequest.of(from, size).getPageSize()));
-        return returnItemList;
+    public ItemSearchPage searchItem(String text, Integer from, Integer size) {
+        return itemSearchPageAssembler.search(text, from, size);
+    }
+
+    @Override
+    public ItemSearchPage searchItemFuzzy(String text, Integer from, Integer size) {
+        return itemSearchPageAssembler.searchFuzzy(text, from, size);
+    }
+
+    @Override
+    public List<String> suggestItemNames(String prefix, Integer size) {
+        return itemNameSuggester.suggest(prefix, size);
     }
 
     @Override
@@ -125,13 +142,34 @@ public class ItemServiceImpl implements ItemService {
                 .orElseThrow(() -> new NotFoundException("Вещи с таким id = " + itemId + "  не существует"));
         User user = userService.getUserById(userId);
         Comment comment;
-        if (bookingRepository.findFirstByBookingUserIdAndItemIdAndEndIsBeforeOrderByEndDesc(userId, itemId,
-                LocalDateTime.now()) != null) {
+        if (bookingTimelineCache.hasFinishedBooking(itemId, userId, LocalDateTime.now())) {
             comment = CommentMapper.toComment(commentDtoInput, item, user);
         } else {
             throw new ValidationException("Пользователь не может оставить комментарий");
         }
-        return commentRepository.save(comment);
+        Comment savedComment = commentWriteQueue.write(comment);
+        itemViewCache.invalidate(itemId);
+        return savedComment;
+    }
+
+    @Override
+    public CursorPage<CommentDto> getComments(long userId, long itemId, String cursor, Integer size) {
+        checkUser(userId);
+        if (!itemRepository.existsById(itemId)) {
+            throw new NotFoundException("Вещи с таким id = " + itemId + "  не существует");
+        }
+        KeysetCursor after = KeysetCursor.decode(cursor);
+        Pageable pageable = PageRequest.of(0, size + 1);
+        List<Comment> comments = after == null
+                ? commentRepository.findFirstPageByItemId(itemId, pageable)
+                : commentRepository.findPageByItemIdAfter(itemId, after.getTimestamp(), after.getId(), pageable);
+        boolean hasMore = comments.size() > size;
+        List<Comment> window = hasMore ? comments.subList(0, size) : comments;
+        Comment last = window.isEmpty() ? null : window.get(window.size() - 1);
+        return new CursorPage<>(window.stream()
+                .map(CommentMapper::toCommentDto)
+                .collect(Collectors.toList()),
+                hasMore ? new KeysetCursor(last.getCreated(), last.getId()).encode() : null);
     }
 
     private void checkUser(long userId) {
@@ -141,39 +179,4 @@ public class ItemServiceImpl implements ItemService {
             throw new NotFoundException("Такого пользователя не существует");
         }
     }
-
-    private ItemWithCommentsAndBookings addNewEntity(Item item, long userId) {
-        LocalDateTime now = LocalDateTime.now();
-        Booking lastBook = bookingRepository.findFirstByItemIdAndStartIsBeforeOrStartEqualsOrderByStartDesc(item.getId(), now, now);
-        Booking nextBook = bookingRepository.findFirstByItemIdAndStartIsAfterOrderByStart(item.getId(), now);
-        BookingShort last;
-        BookingShort next;
-        if (lastBook != null) {
-            last = BookingMapper.toBookingShort(lastBook);
-            if (lastBook.getStatus() == BookingStatus.REJECTED) {
-                last = null;
-            }
-        } else {
-            last = null;
-        }
-        if (nextBook != null) {
-            next = BookingMapper.toBookingShort(nextBook);
-            if (nextBook.getStatus() == BookingStatus.REJECTED) {
-                next = null;
-            }
-        } else {
-            next = null;
-        }
-        if (userId != item.getOwner().getId()) {
-            last = null;
-            next = null;
-        }
-        List<CommentDto> comments = commentRepository.findAllByItem(item).stream()
-                .map(CommentMapper::toCommentDto)
-                .collect(Collectors.toList());
-        if (comments.isEmpty()) {
-            comments = new ArrayList<>();
-        }
-        return ItemMapper.toItemWithTime(item, last, next, comments);
-    }
 }
@@ -0,0 +1,18 @@
+package ru.practicum.shareit.item.service;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import ru.practicum.shareit.item.dto.ItemWithCommentsAndBookings;
+
+import java.time.LocalDateTime;
+
+@Data
+@AllArgsConstructor
+public class ItemView {
+    private ItemWithCommentsAndBookings item;
+    private LocalDateTime validUntil;
+
+    public boolean isExpired(LocalDateTime now) {
+        return validUntil != null && !now.isBefore(validUntil);
+    }
+}
@@ -0,0 +1,176 @@
+package ru.practicum.shareit.item.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import ru.practicum.shareit.item.dto.ItemWithCommentsAndBookings;
+import ru.practicum.shareit.item.model.Item;
+
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Supplier;
+
+@Component
+public class ItemViewCache {
+
+    private static final String CACHE_NAME = "itemView";
+
+    private final ItemAssembler itemAssembler;
+    private final boolean enabled;
+    private final int maxEntries;
+    private final LinkedHashMap<Key, CompletableFuture<ItemView>> views = new LinkedHashMap<>(16, 0.75f, true);
+    private final LinkedHashMap<Long, Long> owners = new LinkedHashMap<>(16, 0.75f, true);
+    private final Counter hits;
+    private final Counter misses;
+    private final Counter evictions;
+    private final Counter invalidations;
+
+    public ItemViewCache(ItemAssembler itemAssembler,
+                         MeterRegistry meterRegistry,
+                         @Value("${shareit.item.view-cache.enabled:true}") boolean enabled,
+                         @Value("${shareit.item.view-cache.max-entries:10000}") int maxEntries) {
+        this.itemAssembler = itemAssembler;
+        this.enabled = enabled;
+        this.maxEntries = maxEntries;
+        this.hits = counter(meterRegistry, "cache.gets", "hit");
+        this.misses = counter(meterRegistry, "cache.gets", "miss");
+        this.evictions = counter(meterRegistry, "cache.evictions", null);
+        this.invalidations = counter(meterRegistry, "cache.invalidations", null);
+        Gauge.builder("cache.size", this, ItemViewCache::size)
+                .tag("cache", CACHE_NAME)
+                .register(meterRegistry);
+    }
+
+    public ItemWithCommentsAndBookings getOrLoad(long itemId, long userId, Supplier<Item> itemLoader) {
+        if (!enabled) {
+            return itemAssembler.assembleView(itemLoader.get(), userId).getItem();
+        }
+        Item item = null;
+        Long ownerId;
+        synchronized (this) {
+            ownerId = owners.get(itemId);
+        }
+        if (ownerId == null) {
+            item = itemLoader.get();
+            ownerId = item.getOwner().getId();
+        }
+        Key key = new Key(itemId, ownerId == userId);
+        while (true) {
+            CompletableFuture<ItemView> loading = new CompletableFuture<>();
+            CompletableFuture<ItemView> cached;
+            synchronized (this) {
+                owners.put(itemId, ownerId);
+                cached = views.get(key);
+                if (cached == null) {
+                    put(key, loading);
+                }
+            }
+            if (cached == null) {
+                misses.increment();
+                return load(key, loading, item != null ? item : itemLoader.get(), userId).getItem();
+            }
+            ItemView view = ItemLookupExecutor.join(cached);
+            if (!view.isExpired(LocalDateTime.now())) {
+                hits.increment();
+                return view.getItem();
+            }
+            synchronized (this) {
+                views.remove(key, cached);
+            }
+        }
+    }
+
+    public void invalidate(long itemId) {
+        evict(itemId);
+        // внутри транзакции загрузчик может успеть прочитать старые данные до коммита
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    evict(itemId);
+                }
+            });
+        }
+    }
+
+    public synchronized int size() {
+        return views.size();
+    }
+
+    private synchronized void evict(long itemId) {
+        for (boolean ownerView : new boolean[]{true, false}) {
+            if (views.remove(new Key(itemId, ownerView)) != null) {
+                invalidations.increment();
+            }
+        }
+    }
+
+    private ItemView load(Key key, CompletableFuture<ItemView> loading, Item item, long userId) {
+        try {
+            ItemView view = itemAssembler.assembleView(item, userId);
+            loading.complete(view);
+            return view;
+        } catch (RuntimeException e) {
+            synchronized (this) {
+                views.remove(key, loading);
+            }
+            loading.completeExceptionally(e);
+            throw e;
+        }
+    }
+
+    private void put(Key key, CompletableFuture<ItemView> loading) {
+        views.put(key, loading);
+        Iterator<Map.Entry<Key, CompletableFuture<ItemView>>> eldest = views.entrySet().iterator();
+        while (views.size() > maxEntries && eldest.hasNext()) {
+            eldest.next();
+            eldest.remove();
+            evictions.increment();
+        }
+        Iterator<Long> eldestOwner = owners.keySet().iterator();
+        while (owners.size() > maxEntries && eldestOwner.hasNext()) {
+            eldestOwner.next();
+            eldestOwner.remove();
+        }
+    }
+
+    private static Counter counter(MeterRegistry meterRegistry, String name, String result) {
+        Counter.Builder builder = Counter.builder(name).tag("cache", CACHE_NAME);
+        if (result != null) {
+            builder.tag("result", result);
+        }
+        return builder.register(meterRegistry);
+    }
+
+    private static final class Key {
+        private final long itemId;
+        private final boolean ownerView;
+
+        private Key(long itemId, boolean ownerView) {
+            this.itemId = itemId;
+            this.ownerView = ownerView;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof Key)) {
+                return false;
+            }
+            Key other = (Key) o;
+            return itemId == other.itemId && ownerView == other.ownerView;
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(itemId, ownerView);
+        }
+    }
+}
@@ -0,0 +1,55 @@
+package ru.practicum.shareit.pagination;
+
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.ToString;
+import ru.practicum.shareit.exception.ValidationException;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.time.temporal.ChronoUnit;
+import java.util.Base64;
+
+@Getter
+@EqualsAndHashCode
+@ToString
+public class KeysetCursor {
+
+    private static final String SEPARATOR = "_";
+    private static final long HALF_MICRO_NANOS = 500;
+
+    private final LocalDateTime timestamp;
+    private final long id;
+
+    public KeysetCursor(LocalDateTime timestamp, long id) {
+        this.timestamp = toStoredPrecision(timestamp);
+        this.id = id;
+    }
+
+    public String encode() {
+        return Base64.getUrlEncoder().withoutPadding()
+                .encodeToString((timestamp + SEPARATOR + id).getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static KeysetCursor decode(String cursor) {
+        if (cursor == null || cursor.isBlank()) {
+            return null;
+        }
+        try {
+            String decoded = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            int separator = decoded.lastIndexOf(SEPARATOR);
+            return new KeysetCursor(LocalDateTime.parse(decoded.substring(0, separator)),
+                    Long.parseLong(decoded.substring(separator + 1)));
+        } catch (IllegalArgumentException | DateTimeParseException | IndexOutOfBoundsException e) {
+            throw new ValidationException("Некорректный курсор: " + cursor);
+        }
+    }
+
+    // Столбцы timestamp хранят микросекунды и округляют до них значение при записи,
+    // а сущность в памяти может держать наносекунды. Курсор приводится к той же точности,
+    // иначе сравнение по (timestamp, id) пропускает или повторяет строки
+    private static LocalDateTime toStoredPrecision(LocalDateTime timestamp) {
+        return timestamp == null ? null : timestamp.plusNanos(HALF_MICRO_NANOS).truncatedTo(ChronoUnit.MICROS);
+    }
+}
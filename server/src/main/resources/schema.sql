@@ -3,9 +3,21 @@ DROP TABLE IF EXISTS items CASCADE;
 DROP TABLE IF EXISTS bookings CASCADE;
 DROP TABLE IF EXISTS requests CASCADE;
 DROP TABLE IF EXISTS comments CASCADE;
+DROP TABLE IF EXISTS item_booking_summaries CASCADE;
+DROP SEQUENCE IF EXISTS users_seq;
+DROP SEQUENCE IF EXISTS requests_seq;
+DROP SEQUENCE IF EXISTS items_seq;
+DROP SEQUENCE IF EXISTS comments_seq;
+DROP SEQUENCE IF EXISTS bookings_seq;
+
+CREATE SEQUENCE IF NOT EXISTS users_seq START WITH 1 INCREMENT BY 50;
+CREATE SEQUENCE IF NOT EXISTS requests_seq START WITH 1 INCREMENT BY 50;
+CREATE SEQUENCE IF NOT EXISTS items_seq START WITH 1 INCREMENT BY 50;
+CREATE SEQUENCE IF NOT EXISTS comments_seq START WITH 1 INCREMENT BY 50;
+CREATE SEQUENCE IF NOT EXISTS bookings_seq START WITH 1 INCREMENT BY 50;
 
 CREATE TABLE IF NOT EXISTS users(
-id BIGINT GENERATED BY DEFAULT AS IDENTITY NOT NULL,
+id BIGINT NOT NULL,
 email VARCHAR(255) NOT NULL,
 name VARCHAR(255) NOT NULL,
 CONSTRAINT pk_user PRIMARY KEY(id),
@@ -13,7 +25,7 @@ CONSTRAINT UQ_USER_EMAIL UNIQUE(email)
 );
 
 CREATE TABLE IF NOT EXISTS requests(
-id BIGINT GENERATED BY DEFAULT AS IDENTITY NOT NULL,
+id BIGINT NOT NULL,
 description VARCHAR,
 created timestamp NOT NULL,
 requestor_id BIGINT REFERENCES users (id),
@@ -23,10 +35,11 @@ FOREIGN KEY (requestor_id) REFERENCES users (id)
 );
 
 CREATE TABLE IF NOT EXISTS items(
-id BIGINT GENERATED BY DEFAULT AS IDENTITY NOT NULL,
+id BIGINT NOT NULL,
 name VARCHAR(255) NOT NULL,
 description VARCHAR(2000) NOT NULL,
 is_available boolean NOT NULL,
+comment_count BIGINT DEFAULT 0 NOT NULL,
 user_id BIGINT REFERENCES users (id),
 request_id BIGINT REFERENCES requests (id),
 CONSTRAINT pk_item PRIMARY KEY (id),
@@ -36,25 +49,57 @@ CONSTRAINT fk_request_item_id
 FOREIGN KEY (request_id) REFERENCES requests (id)
 );
 
+CREATE INDEX IF NOT EXISTS idx_items_owner ON items (user_id);
+
 CREATE TABLE IF NOT EXISTS comments(
-id BIGINT GENERATED BY DEFAULT AS IDENTITY NOT NULL,
+id BIGINT NOT NULL,
 text VARCHAR(2000) NOT NULL,
 item_id BIGINT REFERENCES items (id),
 author_id BIGINT REFERENCES users (id),
-created timestamp,
+created timestamp NOT NULL,
+CONSTRAINT pk_comments PRIMARY KEY (id),
 FOREIGN KEY (item_id) REFERENCES items (id),
 FOREIGN KEY (author_id) REFERENCES users (id)
 );
 
+CREATE INDEX IF NOT EXISTS idx_comments_item_created_id ON comments (item_id, created DESC, id DESC);
+
 CREATE TABLE IF NOT EXISTS bookings(
-id BIGINT GENERATED BY DEFAULT AS IDENTITY NOT NULL,
+id BIGINT NOT NULL,
 item_id BIGINT REFERENCES items (id),
 booking_user_id BIGINT REFERENCES users (id),
+owner_id BIGINT NOT NULL REFERENCES users (id),
 data_start timestamp,
 data_end timestamp,
 status VARCHAR(50),
+CONSTRAINT pk_bookings PRIMARY KEY (id),
 FOREIGN KEY (item_id) REFERENCES items (id),
 FOREIGN KEY (booking_user_id) REFERENCES users (id)
 );
 
+CREATE INDEX IF NOT EXISTS idx_bookings_booker_item_end ON bookings (booking_user_id, item_id, data_end);
+CREATE INDEX IF NOT EXISTS idx_bookings_booker_start ON bookings (booking_user_id, data_start DESC, id DESC);
+CREATE INDEX IF NOT EXISTS idx_bookings_booker_status_start ON bookings (booking_user_id, status, data_start DESC);
+CREATE INDEX IF NOT EXISTS idx_bookings_item_start ON bookings (item_id, data_start);
+CREATE INDEX IF NOT EXISTS idx_bookings_item_status_start ON bookings (item_id, status, data_start DESC);
+CREATE INDEX IF NOT EXISTS idx_bookings_owner_start ON bookings (owner_id, data_start DESC, id DESC);
+CREATE INDEX IF NOT EXISTS idx_bookings_owner_status_start ON bookings (owner_id, status, data_start DESC);
+
+CREATE TABLE IF NOT EXISTS item_booking_summaries(
+item_id BIGINT NOT NULL,
+last_booking_id BIGINT,
+last_booker_id BIGINT,
+last_status VARCHAR(50),
+next_booking_id BIGINT,
+next_booker_id BIGINT,
+next_status VARCHAR(50),
+next_start timestamp,
+current_booking_id BIGINT,
+current_booker_id BIGINT,
+current_end timestamp,
+CONSTRAINT pk_item_booking_summaries PRIMARY KEY (item_id),
+FOREIGN KEY (item_id) REFERENCES items (id)
+);
 
+CREATE INDEX IF NOT EXISTS idx_item_booking_summaries_next_start ON item_booking_summaries (next_start);
+CREATE INDEX IF NOT EXISTS idx_item_booking_summaries_current_end ON item_booking_summaries (current_end);
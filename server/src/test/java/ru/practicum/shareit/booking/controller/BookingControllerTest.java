@@ -19,6 +19,7 @@ import ru.practicum.shareit.booking.service.BookingService;
 import ru.practicum.shareit.item.dto.ItemDto;
 import ru.practicum.shareit.item.mapper.ItemMapper;
 import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.pagination.CursorPage;
 import ru.practicum.shareit.request.dto.ItemRequest;
 
 import ru.practicum.shareit.user.model.User;
@@ -30,6 +31,7 @@ import static org.mockito.ArgumentMatchers.*;
 import static org.mockito.Mockito.*;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultHandlers.print;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
@@ -220,4 +222,36 @@ class BookingControllerTest {
                 .andDo(print())
                 .andExpect(status().isBadRequest());
     }
-}
\ No newline at end of file
+
+    @SneakyThrows
+    @Test
+    void getAllBookingsUser_whenCursorGiven_thenReturnKeysetPageWithNextCursor() {
+        when(bookingService.getUserBookings(eq(1L), eq("ALL"), eq(""), eq(1)))
+                .thenReturn(new CursorPage<>(List.of(booking), "next"));
+
+        mockMvc.perform(get("/bookings")
+                        .header(USER_ID, "1")
+                        .param("state", "ALL")
+                        .param("cursor", "")
+                        .param("size", "1"))
+                .andExpect(status().isOk())
+                .andExpect(header().string("X-Next-Cursor", "next"))
+                .andExpect(jsonPath("$[0].id").value(booking.getId()));
+        verify(bookingService, never()).getUserBookings(anyLong(), anyString(), anyInt(), anyInt());
+    }
+
+    @SneakyThrows
+    @Test
+    void getAllItemsUser_whenLastKeysetPage_thenReturnWithoutNextCursor() {
+        when(bookingService.getUserItems(eq(1L), eq("WAITING"), eq("abc"), eq(20)))
+                .thenReturn(new CursorPage<>(List.of(booking), null));
+
+        mockMvc.perform(get("/bookings/owner")
+                        .header(USER_ID, "1")
+                        .param("state", "WAITING")
+                        .param("cursor", "abc"))
+                .andExpect(status().isOk())
+                .andExpect(header().doesNotExist("X-Next-Cursor"))
+                .andExpect(jsonPath("$[0].id").value(booking.getId()));
+    }
+}
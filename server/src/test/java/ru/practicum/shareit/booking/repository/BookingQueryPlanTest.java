@@ -0,0 +1,157 @@
+package ru.practicum.shareit.booking.repository;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.shareit.booking.enums.BookingState;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// На пустых таблицах H2 оценивает все индексы одинаково и берёт индекс внешнего ключа,
+// поэтому план строится по заполненным таблицам с собранной статистикой.
+// ANALYZE фиксирует транзакцию, поэтому тест работает без неё и сам удаляет данные
+// Запросы перехватываются через StatementInspector, чтобы проверялся SQL, который на самом деле генерирует Hibernate
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.session_factory.statement_inspector="
+        + "ru.practicum.shareit.booking.repository.BookingQueryPlanTest$SqlCapture")
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class BookingQueryPlanTest {
+    private static final int USERS = 20;
+    private static final int BOOKINGS = 2000;
+    private static final String[] STATUSES = {"WAITING", "APPROVED", "REJECTED", "CANCELED"};
+    private static final LocalDateTime NOW = LocalDateTime.of(2024, 2, 1, 0, 0);
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    @Autowired
+    private BookingRepository bookingRepository;
+
+    @BeforeEach
+    void setUp() {
+        List<Object[]> users = new ArrayList<>();
+        List<Object[]> items = new ArrayList<>();
+        for (int i = 1; i <= USERS; i++) {
+            users.add(new Object[]{i, "user" + i + "@mail.ru"});
+            items.add(new Object[]{i, i});
+        }
+        jdbcTemplate.batchUpdate("INSERT INTO users (id, email, name) VALUES (?, ?, 'user')", users);
+        jdbcTemplate.batchUpdate("INSERT INTO items (id, name, description, is_available, user_id) " +
+                "VALUES (?, 'item', 'description', true, ?)", items);
+
+        List<Object[]> bookings = new ArrayList<>();
+        for (int i = 1; i <= BOOKINGS; i++) {
+            int itemId = i * 7 % USERS + 1;
+            bookings.add(new Object[]{i, itemId, i % USERS + 1, itemId, i, i + 5, STATUSES[i % STATUSES.length]});
+        }
+        jdbcTemplate.batchUpdate("INSERT INTO bookings " +
+                "(id, item_id, booking_user_id, owner_id, data_start, data_end, status) " +
+                "VALUES (?, ?, ?, ?, DATEADD(HOUR, ?, TIMESTAMP '2024-01-01 00:00:00'), " +
+                "DATEADD(HOUR, ?, TIMESTAMP '2024-01-01 00:00:00'), ?)", bookings);
+        jdbcTemplate.execute("ANALYZE");
+    }
+
+    @AfterEach
+    void tearDown() {
+        jdbcTemplate.update("DELETE FROM bookings");
+        jdbcTemplate.update("DELETE FROM items");
+        jdbcTemplate.update("DELETE FROM users");
+    }
+
+    @Test
+    void bookerFutureState_thenUseBookerStartIndex() {
+        String plan = explainCaptured(() -> bookingRepository.findByBookerAndState(1L, BookingState.FUTURE, NOW,
+                PageRequest.of(0, 10)), NOW, 10);
+
+        assertTrue(plan.contains("IDX_BOOKINGS_BOOKER_START"), plan);
+    }
+
+    @Test
+    void bookerWaitingState_thenUseBookerStatusIndex() {
+        String plan = explainCaptured(() -> bookingRepository.findByBookerAndState(1L, BookingState.WAITING, NOW,
+                PageRequest.of(0, 10)), "WAITING", 10);
+
+        assertTrue(plan.contains("IDX_BOOKINGS_BOOKER_STATUS_START"), plan);
+    }
+
+    // H2 создаёт для внешнего ключа item_id собственный индекс и считает его равноценным
+    // idx_bookings_item_start, поэтому проверяется только поиск по item_id
+    @Test
+    void itemIntervals_thenSeekByItem() {
+        String plan = explainCaptured(() -> bookingRepository.findIntervalsByItemId(1L), 1L);
+
+        assertTrue(plan.contains(": ITEM_ID = "), plan);
+    }
+
+    @Test
+    void ownerFutureState_thenUseOwnerStartIndexAndJoinItemsByKey() {
+        String plan = explainCaptured(() -> bookingRepository.findByOwnerAndState(1L, BookingState.FUTURE, NOW,
+                PageRequest.of(0, 10)), NOW, 10);
+
+        assertTrue(plan.contains("IDX_BOOKINGS_OWNER_START"), plan);
+        assertItemsJoinedByPrimaryKey(plan);
+    }
+
+    // Для фильтра по data_end H2 не учитывает порядок индекса и считает индексы по owner_id
+    // равноценными, поэтому проверяется только поиск по owner_id
+    @Test
+    void ownerPastState_thenSeekByOwnerAndJoinItemsByKey() {
+        String plan = explainCaptured(() -> bookingRepository.findByOwnerAndState(1L, BookingState.PAST, NOW,
+                PageRequest.of(0, 10)), NOW, 10);
+
+        assertTrue(plan.contains(": OWNER_ID = "), plan);
+        assertItemsJoinedByPrimaryKey(plan);
+    }
+
+    @Test
+    void ownerWaitingState_thenUseOwnerStatusIndexAndJoinItemsByKey() {
+        String plan = explainCaptured(() -> bookingRepository.findByOwnerAndState(1L, BookingState.WAITING, NOW,
+                PageRequest.of(0, 10)), "WAITING", 10);
+
+        assertTrue(plan.contains("IDX_BOOKINGS_OWNER_STATUS_START"), plan);
+        assertItemsJoinedByPrimaryKey(plan);
+    }
+
+    // Граф загрузки присоединяет items, но строки отбираются по bookings, а вещь ищется по первичному ключу
+    private void assertItemsJoinedByPrimaryKey(String plan) {
+        int bookings = plan.indexOf("FROM \"PUBLIC\".\"BOOKINGS\"");
+        int items = plan.indexOf("LEFT OUTER JOIN \"PUBLIC\".\"ITEMS\"");
+        assertTrue(bookings >= 0 && items > bookings, plan);
+        assertTrue(plan.indexOf(".PRIMARY_KEY_", items) > items, plan);
+    }
+
+    // План строится для SQL, который сгенерировал Hibernate, с теми же значениями параметров
+    private String explainCaptured(Runnable query, Object... parameters) {
+        SqlCapture.STATEMENTS.clear();
+        query.run();
+        List<String> statements = SqlCapture.STATEMENTS.stream()
+                .filter(sql -> sql.toLowerCase().contains("from bookings"))
+                .collect(Collectors.toList());
+        assertEquals(1, statements.size(), statements.toString());
+        String sql = statements.get(0);
+        assertEquals(parameters.length, sql.chars().filter(c -> c == '?').count(), sql);
+        return jdbcTemplate.queryForObject("EXPLAIN " + sql, String.class, parameters).toUpperCase();
+    }
+
+    public static class SqlCapture implements StatementInspector {
+        private static final List<String> STATEMENTS = new CopyOnWriteArrayList<>();
+
+        @Override
+        public String inspect(String sql) {
+            STATEMENTS.add(sql);
+            return sql;
+        }
+    }
+}
@@ -5,17 +5,24 @@ import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
 import org.springframework.data.domain.PageRequest;
+import ru.practicum.shareit.booking.dto.BookingIntervalView;
+import ru.practicum.shareit.booking.dto.ItemBookingView;
+import ru.practicum.shareit.booking.enums.BookingState;
 import ru.practicum.shareit.booking.enums.BookingStatus;
 import ru.practicum.shareit.booking.model.Booking;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.pagination.KeysetCursor;
 import ru.practicum.shareit.request.ItemRequestRepository;
 import ru.practicum.shareit.request.dto.ItemRequest;
 import ru.practicum.shareit.user.model.User;
 import ru.practicum.shareit.user.repository.UserRepository;
 
+import javax.persistence.PersistenceUnitUtil;
 import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
 import java.util.List;
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -30,6 +37,8 @@ class BookingRepositoryTest {
     private ItemRequestRepository itemRequestRepository;
     @Autowired
     private ItemRepository itemRepository;
+    @Autowired
+    private TestEntityManager entityManager;
     private Item item;
     private User user;
     private User booker;
@@ -73,16 +82,16 @@ class BookingRepositoryTest {
         booking = Booking.builder()
                 .item(item)
                 .bookingUser(booker)
-                .start(LocalDateTime.now())
-                .end(LocalDateTime.now().plusDays(1))
+                .start(LocalDateTime.now().truncatedTo(ChronoUnit.MICROS))
+                .end(LocalDateTime.now().plusDays(1).truncatedTo(ChronoUnit.MICROS))
                 .status(BookingStatus.WAITING)
                 .build();
         bookingRepository.save(booking);
         booking1 = Booking.builder()
                 .item(item)
                 .bookingUser(booker)
-                .start(LocalDateTime.now())
-                .end(LocalDateTime.now().plusDays(3))
+                .start(LocalDateTime.now().truncatedTo(ChronoUnit.MICROS))
+                .end(LocalDateTime.now().plusDays(3).truncatedTo(ChronoUnit.MICROS))
                 .status(BookingStatus.WAITING)
                 .build();
         bookingRepository.save(booking1);
@@ -97,98 +106,207 @@ class BookingRepositoryTest {
     }
 
     @Test
-    void findAllByBookingUserOrderByStartDesc() {
-        List<Booking> bookings = bookingRepository.findAllByBookingUserOrderByStartDesc(booker, PageRequest.of(0, 5));
+    void findByBookerAndState_whenAll_thenReturnAllBookerBookings() {
+        List<Booking> bookings = bookingRepository.findByBookerAndState(booker.getId(), BookingState.ALL,
+                LocalDateTime.now(), PageRequest.of(0, 5));
         assertFalse(bookings.isEmpty());
         assertEquals(booker, bookings.get(0).getBookingUser());
         assertEquals(2, bookings.size());
     }
 
     @Test
-    void findAllByBookingUserAndStartIsBeforeAndEndIsAfterOrderByStart() {
-        List<Booking> bookings = bookingRepository.findAllByBookingUserAndStartIsBeforeAndEndIsAfterOrderByStart(booker,
-                LocalDateTime.now(), LocalDateTime.now().plusDays(2), PageRequest.of(0, 5));
+    void findByOwnerAndState_whenLoaded_thenFetchItemAndKeepOtherAssociationsLazy() {
+        entityManager.flush();
+        entityManager.clear();
+        PersistenceUnitUtil persistenceUnitUtil = entityManager.getEntityManager().getEntityManagerFactory()
+                .getPersistenceUnitUtil();
+
+        List<Booking> bookings = bookingRepository.findByOwnerAndState(user.getId(), BookingState.ALL,
+                LocalDateTime.now(), PageRequest.of(0, 5));
+
+        assertEquals(2, bookings.size());
+        assertTrue(persistenceUnitUtil.isLoaded(bookings.get(0).getItem()));
+        assertEquals(item.getName(), bookings.get(0).getItem().getName());
+        assertFalse(persistenceUnitUtil.isLoaded(bookings.get(0).getItem().getOwner()));
+        assertFalse(persistenceUnitUtil.isLoaded(bookings.get(0).getBookingUser()));
+        assertEquals(booker.getId(), bookings.get(0).getBookingUser().getId());
+    }
+
+    @Test
+    void findByBookerAndState_whenCurrent_thenReturnStartedAndNotFinished() {
+        List<Booking> bookings = bookingRepository.findByBookerAndState(booker.getId(), BookingState.CURRENT,
+                LocalDateTime.now().plusDays(2), PageRequest.of(0, 5));
         assertEquals(1, bookings.size());
         assertFalse(bookings.contains(booking));
     }
 
     @Test
-    void findAllByBookingUserAndStartIsAfterOrderByStartDesc() {
-        List<Booking> bookings = bookingRepository.findAllByBookingUserAndStartIsAfterOrderByStartDesc(booker,
+    void findByBookerAndState_whenFuture_thenReturnNotStarted() {
+        List<Booking> bookings = bookingRepository.findByBookerAndState(booker.getId(), BookingState.FUTURE,
                 LocalDateTime.now().minusHours(5), PageRequest.of(0, 5));
         assertEquals(2, bookings.size());
     }
 
     @Test
-    void findAllByBookingUserAndEndIsBeforeOrderByStartDesc() {
-        List<Booking> bookings = bookingRepository.findAllByBookingUserAndStartIsAfterOrderByStartDesc(booker,
-                LocalDateTime.now().plusDays(5), PageRequest.of(0, 5));
-        assertEquals(0, bookings.size());
+    void findByBookerAndState_whenPast_thenReturnFinished() {
+        List<Booking> bookings = bookingRepository.findByBookerAndState(booker.getId(), BookingState.PAST,
+                LocalDateTime.now().plusDays(2), PageRequest.of(0, 5));
+        assertEquals(1, bookings.size());
+        assertEquals(booking, bookings.get(0));
     }
 
     @Test
-    void findAllByBookingUserAndStatusEqualsOrderByStartDesc() {
-        List<Booking> bookings = bookingRepository.findAllByBookingUserAndStatusEqualsOrderByStartDesc(booker,
-                BookingStatus.WAITING, PageRequest.of(0, 1));
+    void findByBookerAndState_whenWaiting_thenReturnNewestFirst() {
+        List<Booking> bookings = bookingRepository.findByBookerAndState(booker.getId(), BookingState.WAITING,
+                LocalDateTime.now(), PageRequest.of(0, 1));
         assertEquals(1, bookings.size());
         assertEquals(booking1, bookings.get(0));
     }
 
     @Test
-    void findAllByItemOwnerOrderByStartDesc() {
-        List<Booking> bookings = bookingRepository.findAllByItemOwnerOrderByStartDesc(user, PageRequest.of(0, 5));
+    void findByOwnerAndState_whenAll_thenReturnOwnerBookings() {
+        List<Booking> bookings = bookingRepository.findByOwnerAndState(user.getId(), BookingState.ALL,
+                LocalDateTime.now(), PageRequest.of(0, 5));
         assertEquals(2, bookings.size());
+        assertTrue(bookingRepository.findByOwnerAndState(booker.getId(), BookingState.ALL,
+                LocalDateTime.now(), PageRequest.of(0, 5)).isEmpty());
     }
 
     @Test
-    void findAllByItemOwnerAndStartIsBeforeAndEndIsAfterOrderByStart() {
-        List<Booking> bookings = bookingRepository.findAllByItemOwnerAndStartIsBeforeAndEndIsAfterOrderByStart(user,
-                LocalDateTime.now(), LocalDateTime.now().plusDays(2), PageRequest.of(0, 5));
+    void findByOwnerAndState_whenCurrent_thenReturnStartedAndNotFinished() {
+        List<Booking> bookings = bookingRepository.findByOwnerAndState(user.getId(), BookingState.CURRENT,
+                LocalDateTime.now().plusDays(2), PageRequest.of(0, 5));
         assertEquals(1, bookings.size());
         assertEquals(booking1, bookings.get(0));
     }
 
     @Test
-    void findAllByItemOwnerAndStartIsAfterOrderByStartDesc() {
-        List<Booking> bookings = bookingRepository.findAllByItemOwnerAndStartIsAfterOrderByStartDesc(user,
+    void findByOwnerAndState_whenFuture_thenReturnNewestFirst() {
+        List<Booking> bookings = bookingRepository.findByOwnerAndState(user.getId(), BookingState.FUTURE,
                 LocalDateTime.now().minusHours(1), PageRequest.of(0, 1));
         assertEquals(1, bookings.size());
         assertEquals(booking1, bookings.get(0));
     }
 
     @Test
-    void findAllByItemOwnerAndEndIsBeforeOrderByStartDesc() {
-        List<Booking> bookings = bookingRepository.findAllByItemOwnerAndEndIsBeforeOrderByStartDesc(user,
-                LocalDateTime.now().plusDays(3), PageRequest.of(0, 2));
+    void findByOwnerAndState_whenPast_thenReturnFinished() {
+        List<Booking> bookings = bookingRepository.findByOwnerAndState(user.getId(), BookingState.PAST,
+                LocalDateTime.now().plusDays(4), PageRequest.of(0, 2));
         assertEquals(2, bookings.size());
     }
 
     @Test
-    void findAllByItemOwnerAndStatusEqualsOrderByStartDesc() {
-        List<Booking> bookings = bookingRepository.findAllByItemOwnerAndStatusEqualsOrderByStartDesc(user,
-                BookingStatus.WAITING, PageRequest.of(0, 1));
+    void findByBookerAndState_whenCursorGiven_thenContinueAfterCursorByStartAndId() {
+        Booking sameStart = bookingRepository.save(Booking.builder()
+                .item(item)
+                .bookingUser(booker)
+                .start(booking1.getStart())
+                .end(booking1.getEnd())
+                .status(BookingStatus.APPROVED)
+                .build());
+        LocalDateTime now = LocalDateTime.now();
+
+        List<Booking> firstPage = bookingRepository.findByBookerAndState(booker.getId(), BookingState.ALL, now,
+                null, 2);
+        Booking last = firstPage.get(1);
+        List<Booking> secondPage = bookingRepository.findByBookerAndState(booker.getId(), BookingState.ALL, now,
+                new KeysetCursor(last.getStart(), last.getId()), 2);
+
+        assertEquals(List.of(sameStart, booking1), firstPage);
+        assertEquals(List.of(booking), secondPage);
+    }
+
+    @Test
+    void findByOwnerAndState_whenCurrentWithCursor_thenContinueInAscendingOrder() {
+        LocalDateTime now = LocalDateTime.now().plusHours(1);
+
+        List<Booking> firstPage = bookingRepository.findByOwnerAndState(user.getId(), BookingState.CURRENT, now,
+                null, 1);
+        List<Booking> secondPage = bookingRepository.findByOwnerAndState(user.getId(), BookingState.CURRENT, now,
+                new KeysetCursor(firstPage.get(0).getStart(), firstPage.get(0).getId()), 1);
+
+        assertEquals(List.of(booking), firstPage);
+        assertEquals(List.of(booking1), secondPage);
+    }
+
+    @Test
+    void save_whenBookingInserted_thenCopyItemOwner() {
+        assertEquals(user.getId(), booking.getOwnerId());
+        assertEquals(user.getId(), bookingRepository.findById(booking1.getId()).orElseThrow().getOwnerId());
+    }
+
+    @Test
+    void findByOwnerAndState_whenRejected_thenReturnOnlyRejected() {
+        booking.setStatus(BookingStatus.REJECTED);
+        bookingRepository.save(booking);
+
+        List<Booking> bookings = bookingRepository.findByOwnerAndState(user.getId(), BookingState.REJECTED,
+                LocalDateTime.now(), PageRequest.of(0, 5));
         assertEquals(1, bookings.size());
-        assertEquals(booking1, bookings.get(0));
+        assertEquals(booking.getId(), bookings.get(0).getId());
     }
 
     @Test
-    void findFirstByItemIdAndStartIsBeforeOrStartEqualsOrderByStartDesc() {
-        Booking booking2 = bookingRepository.findFirstByItemIdAndStartIsBeforeOrStartEqualsOrderByStartDesc(item.getId(),
-                LocalDateTime.now(), LocalDateTime.now().plusDays(1));
-        assertEquals(booking1, booking2);
+    void findLastAndNextByItemIds() {
+        LocalDateTime now = LocalDateTime.now().plusHours(1);
+        Booking future = bookingRepository.save(Booking.builder()
+                .item(item)
+                .bookingUser(booker1)
+                .start(now.plusDays(2))
+                .end(now.plusDays(3))
+                .status(BookingStatus.APPROVED)
+                .build());
+        bookingRepository.save(Booking.builder()
+                .item(item)
+                .bookingUser(booker1)
+                .start(now.plusDays(5))
+                .end(now.plusDays(6))
+                .status(BookingStatus.APPROVED)
+                .build());
+
+        List<ItemBookingView> bookings = bookingRepository.findLastAndNextByItemIds(List.of(item.getId()), now);
+
+        assertEquals(2, bookings.size());
+        ItemBookingView last = bookings.stream().filter(view -> view.getPast() == 1).findFirst().orElseThrow();
+        ItemBookingView next = bookings.stream().filter(view -> view.getPast() == 0).findFirst().orElseThrow();
+        assertEquals(booking1.getId(), last.getId());
+        assertEquals(booker.getId(), last.getBookerId());
+        assertEquals(item.getId(), last.getItemId());
+        assertEquals(future.getId(), next.getId());
+        assertEquals("APPROVED", next.getStatus());
     }
 
     @Test
-    void findFirstByItemIdAndStartIsAfterOrderByStart() {
-        Booking booking2 = bookingRepository.findFirstByItemIdAndStartIsAfterOrderByStart(item.getId(),
-                LocalDateTime.now().minusHours(4));
-        assertEquals(booking, booking2);
+    void findCurrentByItemIds() {
+        LocalDateTime now = LocalDateTime.now().plusHours(1);
+        booking1.setStatus(BookingStatus.REJECTED);
+        bookingRepository.save(booking1);
+
+        List<ItemBookingView> bookings = bookingRepository.findCurrentByItemIds(List.of(item.getId()), now);
+
+        assertEquals(1, bookings.size());
+        assertEquals(booking.getId(), bookings.get(0).getId());
+        assertNotNull(bookings.get(0).getBookingEnd());
+    }
+
+    @Test
+    void findIntervalsByItemId() {
+        List<BookingIntervalView> intervals = bookingRepository.findIntervalsByItemId(item.getId());
+
+        assertEquals(2, intervals.size());
+        assertEquals(booking.getId(), intervals.get(0).getId());
+        assertEquals(booker.getId(), intervals.get(0).getBookerId());
+        assertEquals("WAITING", intervals.get(1).getStatus());
+        assertTrue(bookingRepository.findIntervalsByItemId(item.getId() + 100).isEmpty());
     }
 
     @Test
-    void findFirstByBookingUserIdAndItemIdAndEndIsBeforeOrderByEndDesc() {
-        Booking booking2 = bookingRepository.findFirstByBookingUserIdAndItemIdAndEndIsBeforeOrderByEndDesc(booker.getId(),
-                item.getId(), LocalDateTime.now().plusDays(1));
-        assertEquals(booking, booking2);
+    void existsByBookingUserIdAndItemIdAndEndIsBefore() {
+        assertTrue(bookingRepository.existsByBookingUserIdAndItemIdAndEndIsBefore(booker.getId(),
+                item.getId(), LocalDateTime.now().plusDays(2)));
+        assertFalse(bookingRepository.existsByBookingUserIdAndItemIdAndEndIsBefore(booker1.getId(),
+                item.getId(), LocalDateTime.now().plusDays(2)));
+        assertFalse(bookingRepository.existsByBookingUserIdAndItemIdAndEndIsBefore(booker.getId(),
+                item.getId(), LocalDateTime.now()));
     }
 }
\ No newline at end of file
@@ -0,0 +1,84 @@
+package ru.practicum.shareit.booking.repository;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.data.domain.PageRequest;
+import ru.practicum.shareit.booking.model.ItemBookingSummary;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.user.repository.UserRepository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest
+class ItemBookingSummaryRepositoryTest {
+    @Autowired
+    private ItemBookingSummaryRepository itemBookingSummaryRepository;
+    @Autowired
+    private ItemRepository itemRepository;
+    @Autowired
+    private UserRepository userRepository;
+
+    private Item startedItem;
+    private Item endedItem;
+    private Item freshItem;
+
+    @BeforeEach
+    void setUp() {
+        User owner = userRepository.save(User.builder()
+                .email("alex@mail.ru")
+                .name("alex")
+                .build());
+        startedItem = itemRepository.save(item(owner, "дрель"));
+        endedItem = itemRepository.save(item(owner, "стул"));
+        freshItem = itemRepository.save(item(owner, "пила"));
+        LocalDateTime now = LocalDateTime.now();
+        itemBookingSummaryRepository.save(ItemBookingSummary.builder()
+                .itemId(startedItem.getId())
+                .nextBookingId(1L)
+                .nextStart(now.minusMinutes(5))
+                .build());
+        itemBookingSummaryRepository.save(ItemBookingSummary.builder()
+                .itemId(endedItem.getId())
+                .currentBookingId(2L)
+                .currentEnd(now.minusMinutes(1))
+                .build());
+        itemBookingSummaryRepository.save(ItemBookingSummary.builder()
+                .itemId(freshItem.getId())
+                .nextBookingId(3L)
+                .nextStart(now.plusDays(1))
+                .currentBookingId(4L)
+                .currentEnd(now.plusHours(1))
+                .build());
+    }
+
+    @AfterEach
+    void delete() {
+        itemBookingSummaryRepository.deleteAll();
+        itemRepository.deleteAll();
+        userRepository.deleteAll();
+    }
+
+    @Test
+    void findStaleItemIds() {
+        List<Long> staleItemIds = itemBookingSummaryRepository.findStaleItemIds(LocalDateTime.now(), PageRequest.of(0, 10));
+
+        assertEquals(List.of(startedItem.getId(), endedItem.getId()), staleItemIds);
+    }
+
+    private Item item(User owner, String name) {
+        return Item.builder()
+                .name(name)
+                .description(name)
+                .available(true)
+                .owner(owner)
+                .build();
+    }
+}
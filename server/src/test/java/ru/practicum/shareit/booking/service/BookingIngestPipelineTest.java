@@ -0,0 +1,248 @@
+package ru.practicum.shareit.booking.service;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import ru.practicum.shareit.booking.enums.BookingStatus;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.timeline.BookingInterval;
+import ru.practicum.shareit.booking.timeline.BookingTimeline;
+import ru.practicum.shareit.booking.timeline.BookingTimelineCache;
+import ru.practicum.shareit.exception.ValidationException;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.user.model.User;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class BookingIngestPipelineTest {
+    @Mock
+    private BookingOverlapGuard bookingOverlapGuard;
+    @Mock
+    private BookingWriter bookingWriter;
+    @Mock
+    private BookingTimelineCache bookingTimelineCache;
+
+    private MeterRegistry meterRegistry;
+    private BookingIngestPipeline pipeline;
+    private LocalDateTime start;
+    private AtomicLong ids;
+    private List<Long> written;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        start = LocalDateTime.now().plusDays(1);
+        ids = new AtomicLong();
+        written = Collections.synchronizedList(new ArrayList<>());
+    }
+
+    @AfterEach
+    void tearDown() throws InterruptedException {
+        pipeline.shutdown();
+    }
+
+    @Test
+    void submit_whenNotSharded_thenReserveUnderItemLock() {
+        pipeline = new BookingIngestPipeline(bookingOverlapGuard, bookingWriter, bookingTimelineCache, meterRegistry,
+                false, 2, 16, 8, 5000);
+        Booking booking = booking(1L, start, start.plusDays(1));
+        when(bookingOverlapGuard.reserve(eq(1L), eq(booking.getStart()), eq(booking.getEnd()), any()))
+                .thenAnswer(invocation -> invocation.<Supplier<Booking>>getArgument(3).get());
+        when(bookingWriter.write(List.of(booking))).thenAnswer(invocation -> assignIds(invocation.getArgument(0)));
+
+        Booking saved = pipeline.submit(booking);
+
+        assertEquals(1L, saved.getId());
+        verify(bookingTimelineCache).record(saved);
+    }
+
+    @Test
+    void submit_whenSharded_thenRejectOverlapWithinSameItem() {
+        pipeline = new BookingIngestPipeline(bookingOverlapGuard, bookingWriter, bookingTimelineCache, meterRegistry,
+                true, 2, 16, 8, 5000);
+        useInMemoryTimelines();
+        when(bookingWriter.write(anyList())).thenAnswer(invocation -> assignIds(invocation.getArgument(0)));
+
+        Booking first = pipeline.submit(booking(1L, start, start.plusDays(1)));
+
+        assertTrue(first.getId() > 0);
+        assertThrows(ValidationException.class, () -> pipeline.submit(booking(1L, start.plusHours(1),
+                start.plusDays(2))));
+        verify(bookingTimelineCache).record(first);
+        verifyNoInteractions(bookingOverlapGuard);
+    }
+
+    @Test
+    void submit_whenShardedReapproval_thenCheckOverlapInItemShard() {
+        pipeline = new BookingIngestPipeline(bookingOverlapGuard, bookingWriter, bookingTimelineCache, meterRegistry,
+                true, 2, 16, 8, 5000);
+        useInMemoryTimelines();
+        when(bookingWriter.write(anyList())).thenAnswer(invocation -> assignIds(invocation.getArgument(0)));
+        Booking overlapped = rejected(1L, 100L);
+        Booking free = rejected(2L, 200L);
+        bookingTimelineCache.record(overlapped);
+        bookingTimelineCache.record(free);
+        pipeline.submit(booking(1L, start, start.plusDays(1)));
+
+        overlapped.setStatus(BookingStatus.APPROVED);
+        free.setStatus(BookingStatus.APPROVED);
+
+        assertThrows(ValidationException.class, () -> pipeline.submit(overlapped));
+        assertEquals(200L, pipeline.submit(free).getId());
+        assertTrue(bookingTimelineCache.get(2L).overlaps(start, start.plusDays(1)));
+        verifyNoInteractions(bookingOverlapGuard);
+    }
+
+    @Test
+    void submit_whenShardedConcurrently_thenAcceptOnlyOneBookingPerPeriodAndItem() {
+        pipeline = new BookingIngestPipeline(bookingOverlapGuard, bookingWriter, bookingTimelineCache, meterRegistry,
+                true, 2, 64, 8, 5000);
+        useInMemoryTimelines();
+        when(bookingWriter.write(anyList())).thenAnswer(invocation -> {
+            List<Booking> bookings = assignIds(invocation.getArgument(0));
+            bookings.forEach(booking -> written.add(booking.getItem().getId()));
+            return bookings;
+        });
+
+        List<CompletableFuture<Booking>> submits = new ArrayList<>();
+        for (long itemId = 1; itemId <= 3; itemId++) {
+            for (int attempt = 0; attempt < 5; attempt++) {
+                Booking booking = booking(itemId, start, start.plusDays(1));
+                submits.add(CompletableFuture.supplyAsync(() -> pipeline.submit(booking)));
+            }
+        }
+        List<Booking> accepted = submits.stream()
+                .map(submit -> submit.handle((booking, e) -> booking))
+                .map(CompletableFuture::join)
+                .filter(booking -> booking != null)
+                .collect(Collectors.toList());
+
+        assertEquals(3, accepted.size());
+        assertEquals(List.of(1L, 2L, 3L), written.stream().sorted().collect(Collectors.toList()));
+    }
+
+    @Test
+    void submit_whenWorkerFailsWithError_thenFailBatchAndKeepServing() {
+        pipeline = new BookingIngestPipeline(bookingOverlapGuard, bookingWriter, bookingTimelineCache, meterRegistry,
+                true, 1, 16, 8, 5000);
+        useInMemoryTimelines();
+        when(bookingWriter.write(anyList()))
+                .thenThrow(new StackOverflowError())
+                .thenAnswer(invocation -> assignIds(invocation.getArgument(0)));
+
+        assertThrows(IllegalStateException.class, () -> pipeline.submit(booking(1L, start, start.plusDays(1))));
+        assertTrue(pipeline.submit(booking(1L, start, start.plusDays(1))).getId() > 0);
+    }
+
+    @Test
+    void submit_whenQueuedBookingNotProcessedInTime_thenThrowAndSkipIt() throws InterruptedException {
+        pipeline = new BookingIngestPipeline(bookingOverlapGuard, bookingWriter, bookingTimelineCache, meterRegistry,
+                true, 1, 16, 8, 100);
+        when(bookingTimelineCache.get(anyLong())).thenReturn(BookingTimeline.of(List.of()));
+        CountDownLatch writing = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        when(bookingWriter.write(anyList())).thenAnswer(invocation -> {
+            writing.countDown();
+            release.await();
+            List<Booking> bookings = assignIds(invocation.getArgument(0));
+            bookings.forEach(booking -> written.add(booking.getItem().getId()));
+            return bookings;
+        });
+        CompletableFuture<Booking> blocking = CompletableFuture.supplyAsync(() ->
+                pipeline.submit(booking(1L, start, start.plusDays(1))));
+        writing.await();
+
+        assertThrows(IllegalStateException.class, () -> pipeline.submit(booking(2L, start, start.plusDays(1))));
+        release.countDown();
+        assertEquals(1L, blocking.join().getItem().getId());
+        pipeline.shutdown();
+
+        assertEquals(List.of(1L), written);
+    }
+
+    @Test
+    void submit_whenTimedOutAfterWorkerTookBooking_thenWaitForSavedBooking() {
+        pipeline = new BookingIngestPipeline(bookingOverlapGuard, bookingWriter, bookingTimelineCache, meterRegistry,
+                true, 1, 16, 8, 50);
+        useInMemoryTimelines();
+        when(bookingWriter.write(anyList())).thenAnswer(invocation -> {
+            // запись идёт дольше времени ожидания вызывающего
+            Thread.sleep(300);
+            return assignIds(invocation.getArgument(0));
+        });
+
+        Booking saved = pipeline.submit(booking(1L, start, start.plusDays(1)));
+
+        assertEquals(1L, saved.getId());
+        verify(bookingTimelineCache).record(saved);
+    }
+
+    @Test
+    void submit_whenShutDown_thenRejectBooking() throws InterruptedException {
+        pipeline = new BookingIngestPipeline(bookingOverlapGuard, bookingWriter, bookingTimelineCache, meterRegistry,
+                true, 1, 16, 8, 5000);
+
+        pipeline.shutdown();
+
+        IllegalStateException e = assertThrows(IllegalStateException.class, () ->
+                pipeline.submit(booking(1L, start, start.plusDays(1))));
+        assertEquals(BookingIngestPipeline.STOPPED_MESSAGE, e.getMessage());
+        verifyNoInteractions(bookingWriter);
+    }
+
+    private void useInMemoryTimelines() {
+        Map<Long, BookingTimeline> timelines = new ConcurrentHashMap<>();
+        when(bookingTimelineCache.get(anyLong())).thenAnswer(invocation -> timelines.getOrDefault(
+                invocation.<Long>getArgument(0), BookingTimeline.of(List.of())));
+        doAnswer(invocation -> {
+            Booking booking = invocation.getArgument(0);
+            BookingInterval interval = BookingInterval.of(booking);
+            timelines.merge(booking.getItem().getId(), BookingTimeline.of(List.of(interval)),
+                    (timeline, added) -> timeline.with(interval));
+            return null;
+        }).when(bookingTimelineCache).record(any(Booking.class));
+    }
+
+    private List<Booking> assignIds(List<Booking> bookings) {
+        bookings.stream()
+                .filter(booking -> booking.getId() == null)
+                .forEach(booking -> booking.setId(ids.incrementAndGet()));
+        return bookings;
+    }
+
+    private Booking rejected(long itemId, long id) {
+        Booking booking = booking(itemId, start, start.plusDays(1));
+        booking.setId(id);
+        booking.setStatus(BookingStatus.REJECTED);
+        return booking;
+    }
+
+    private Booking booking(long itemId, LocalDateTime bookingStart, LocalDateTime bookingEnd) {
+        return Booking.builder()
+                .item(Item.builder().id(itemId).build())
+                .bookingUser(User.builder().id(9L).build())
+                .start(bookingStart)
+                .end(bookingEnd)
+                .status(BookingStatus.WAITING)
+                .build();
+    }
+}
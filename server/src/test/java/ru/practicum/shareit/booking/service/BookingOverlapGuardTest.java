@@ -0,0 +1,106 @@
+package ru.practicum.shareit.booking.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataIntegrityViolationException;
+import ru.practicum.shareit.booking.enums.BookingStatus;
+import ru.practicum.shareit.booking.timeline.BookingInterval;
+import ru.practicum.shareit.booking.timeline.BookingTimeline;
+import ru.practicum.shareit.booking.timeline.BookingTimelineCache;
+import ru.practicum.shareit.exception.ValidationException;
+
+import java.sql.SQLException;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class BookingOverlapGuardTest {
+    @Mock
+    private BookingTimelineCache bookingTimelineCache;
+
+    private BookingOverlapGuard guard;
+    private LocalDateTime start;
+
+    @BeforeEach
+    void setUp() {
+        guard = new BookingOverlapGuard(bookingTimelineCache, true, 4);
+        start = LocalDateTime.now().plusDays(1);
+    }
+
+    @Test
+    void reserve_whenPeriodFree_thenSave() {
+        when(bookingTimelineCache.get(1L)).thenReturn(timeline(start.minusDays(2), start));
+
+        assertEquals("сохранено", guard.reserve(1L, start, start.plusDays(1), () -> "сохранено"));
+    }
+
+    @Test
+    void reserve_whenPeriodOverlaps_thenThrowWithoutSave() {
+        when(bookingTimelineCache.get(1L)).thenReturn(timeline(start.minusDays(1), start.plusHours(1)));
+
+        assertThrows(ValidationException.class,
+                () -> guard.reserve(1L, start, start.plusDays(1), () -> fail("бронирование не должно сохраняться")));
+    }
+
+    @Test
+    void reserve_whenDisabled_thenSaveWithoutCheck() {
+        guard = new BookingOverlapGuard(bookingTimelineCache, false, 4);
+
+        assertEquals("сохранено", guard.reserve(1L, start, start.plusDays(1), () -> "сохранено"));
+        verifyNoInteractions(bookingTimelineCache);
+    }
+
+    @Test
+    void reserve_whenExclusionConstraintViolated_thenThrowValidation() {
+        guard = new BookingOverlapGuard(bookingTimelineCache, false, 4);
+
+        assertThrows(ValidationException.class, () -> guard.reserve(1L, start, start.plusDays(1), () -> {
+            throw new DataIntegrityViolationException("constraint",
+                    new SQLException("conflicting key value violates exclusion constraint \"ex_bookings_item_period\""));
+        }));
+    }
+
+    @Test
+    void reserve_whenSameItemReservedConcurrently_thenCheckAfterPreviousSave() throws Exception {
+        AtomicReference<BookingTimeline> stored = new AtomicReference<>(BookingTimeline.of(List.of()));
+        when(bookingTimelineCache.get(1L)).thenAnswer(invocation -> stored.get());
+        CountDownLatch firstSaving = new CountDownLatch(1);
+
+        CompletableFuture<String> first = CompletableFuture.supplyAsync(() -> guard.reserve(1L, start, start.plusDays(1),
+                () -> {
+                    firstSaving.countDown();
+                    sleep();
+                    stored.set(timeline(start, start.plusDays(1)));
+                    return "первое";
+                }));
+        assertTrue(firstSaving.await(1, TimeUnit.SECONDS));
+        CompletableFuture<String> second = CompletableFuture.supplyAsync(() -> guard.reserve(1L, start.plusHours(2),
+                start.plusDays(2), () -> "второе"));
+
+        assertEquals("первое", first.join());
+        Throwable thrown = assertThrows(Exception.class, second::join);
+        assertInstanceOf(ValidationException.class, thrown.getCause());
+    }
+
+    private BookingTimeline timeline(LocalDateTime bookingStart, LocalDateTime bookingEnd) {
+        return BookingTimeline.of(List.of(new BookingInterval(1L, 2L, BookingStatus.APPROVED, bookingStart, bookingEnd)));
+    }
+
+    private static void sleep() {
+        try {
+            TimeUnit.MILLISECONDS.sleep(100);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -10,14 +10,19 @@ import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import ru.practicum.shareit.booking.dto.BookingDtoRequest;
+import ru.practicum.shareit.booking.enums.BookingState;
 import ru.practicum.shareit.booking.enums.BookingStatus;
 import ru.practicum.shareit.booking.mapper.BookingMapper;
 import ru.practicum.shareit.booking.model.Booking;
 import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.booking.timeline.BookingTimelineCache;
 import ru.practicum.shareit.exception.NotFoundException;
 import ru.practicum.shareit.exception.ValidationException;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.item.service.ItemViewCache;
+import ru.practicum.shareit.pagination.CursorPage;
+import ru.practicum.shareit.pagination.KeysetCursor;
 import ru.practicum.shareit.request.dto.ItemRequest;
 import ru.practicum.shareit.user.model.User;
 import ru.practicum.shareit.user.repository.UserRepository;
@@ -42,6 +47,14 @@ class BookingServiceImplTest {
     private UserRepository userRepository;
     @Mock
     private ItemRepository itemRepository;
+    @Mock
+    private ItemBookingSummaryService itemBookingSummaryService;
+    @Mock
+    private BookingTimelineCache bookingTimelineCache;
+    @Mock
+    private ItemViewCache itemViewCache;
+    @Mock
+    private BookingIngestPipeline bookingIngestPipeline;
 
     private User user;
     private Item item;
@@ -90,14 +103,27 @@ class BookingServiceImplTest {
     void addBooking_whenInputValueValid_thenReturnSaveBooking() {
         when(userRepository.findById(user.getId())).thenReturn(Optional.of(user));
         when(itemRepository.findById(request.getItemId())).thenReturn(Optional.of(item));
-        when(bookingRepository.save(booking))
-                .thenReturn(booking);
+        when(bookingIngestPipeline.submit(booking)).thenReturn(booking);
         when(bookingRepository.findById(booking.getId())).thenReturn(Optional.of(booking));
         Booking saveBooking = bookingService.addBooking(user.getId(), request);
 
         assertEquals(saveBooking.getItem(), item, "Метод работает некорректно");
         assertEquals(saveBooking.getBookingUser(), user, "Метод работает некорректно");
-        verify(bookingRepository, times(1)).save(any(Booking.class));
+        verify(bookingIngestPipeline, times(1)).submit(any(Booking.class));
+        verify(itemBookingSummaryService).refresh(List.of(item.getId()));
+        verify(itemViewCache).invalidate(item.getId());
+    }
+
+    @Test
+    void addBooking_whenPeriodOverlaps_thenReturnThrows() {
+        when(userRepository.findById(user.getId())).thenReturn(Optional.of(user));
+        when(itemRepository.findById(request.getItemId())).thenReturn(Optional.of(item));
+        when(bookingIngestPipeline.submit(booking))
+                .thenThrow(new ValidationException("Вещь уже забронирована на указанный период"));
+
+        assertThrows(ValidationException.class, () -> bookingService.addBooking(user.getId(), request));
+        verify(itemBookingSummaryService, never()).refresh(anyList());
+        verify(itemViewCache, never()).invalidate(anyLong());
     }
 
     @Test
@@ -159,9 +185,39 @@ class BookingServiceImplTest {
         when(bookingRepository.findById(anyLong())).thenReturn(Optional.of(booking));
         Booking actualStatusBooking = bookingService.getStatus(booking.getId(), owner.getId(), false);
         assertEquals(BookingStatus.REJECTED, actualStatusBooking.getStatus(), "Метод отработал некорректно");
+        verify(bookingTimelineCache).record(any(Booking.class));
+        verify(itemBookingSummaryService).refresh(List.of(item.getId()));
+        verify(itemViewCache).invalidate(item.getId());
         assertEquals(item, actualStatusBooking.getItem(), "Метод отработал некорректно");
     }
 
+    @Test
+    void getStatus_whenRejectedApproved_thenSubmitThroughIngestPipeline() {
+        booking.setStatus(BookingStatus.REJECTED);
+        when(userRepository.findById(anyLong())).thenReturn(Optional.of(user));
+        when(bookingRepository.findById(anyLong())).thenReturn(Optional.of(booking));
+        when(bookingIngestPipeline.submit(booking)).thenReturn(booking);
+
+        Booking actualStatusBooking = bookingService.getStatus(booking.getId(), owner.getId(), true);
+
+        assertEquals(BookingStatus.APPROVED, actualStatusBooking.getStatus());
+        verify(bookingIngestPipeline).submit(booking);
+        verify(bookingRepository, never()).save(any(Booking.class));
+    }
+
+    @Test
+    void getStatus_whenRejectedApprovedOverlapsBooking_thenThrowValidationException() {
+        booking.setStatus(BookingStatus.REJECTED);
+        when(userRepository.findById(anyLong())).thenReturn(Optional.of(user));
+        when(bookingRepository.findById(anyLong())).thenReturn(Optional.of(booking));
+        when(bookingIngestPipeline.submit(booking))
+                .thenThrow(new ValidationException(BookingOverlapGuard.OVERLAP_MESSAGE));
+
+        assertThrows(ValidationException.class, () -> bookingService.getStatus(booking.getId(), owner.getId(), true));
+        verify(bookingRepository, never()).save(any(Booking.class));
+        verifyNoInteractions(itemBookingSummaryService, itemViewCache);
+    }
+
     @Test
     void getBooking_whenInputValueValid_thenReturnBooking() {
         when(userRepository.findById(anyLong())).thenReturn(Optional.of(user));
@@ -198,50 +254,41 @@ class BookingServiceImplTest {
     void getUserBookings_whenStatusEqualsAll_thenReturnBookingList() {
         Integer from = 1;
         Integer size = 10;
-        LocalDateTime dateTime = LocalDateTime.now();
         Pageable pageable = PageRequest.of(from / size, size);
         List<Booking> list = List.of(booking);
         when(userRepository.findById(anyLong())).thenReturn(Optional.of(user));
-        when(bookingRepository.findAllByBookingUserOrderByStartDesc(user, pageable)).thenReturn(list);
+        when(bookingRepository.findByBookerAndState(eq(user.getId()), eq(BookingState.ALL), any(LocalDateTime.class),
+                eq(pageable))).thenReturn(list);
         List<Booking> orderBooking = bookingService.getUserBookings(user.getId(), "ALL", from, size);
         assertFalse(orderBooking.isEmpty());
         assertEquals(1, orderBooking.size(), "Некорректно отработал метод");
-        verify(bookingRepository, never()).findAllByBookingUserAndStartIsBeforeAndEndIsAfterOrderByStart(user, dateTime,
-                dateTime.plusDays(1), pageable);
+        verify(bookingRepository, never()).findByOwnerAndState(anyLong(), any(BookingState.class),
+                any(LocalDateTime.class), any(Pageable.class));
     }
 
     @Test
     void getUserBookings_whenStatusEqualsCURRENT_thenReturnBookingList() {
-        Integer from = 1;
-        Integer size = 10;
-        LocalDateTime dateTime = LocalDateTime.now();
-        Pageable pageable = PageRequest.of(from / size, size);
         List<Booking> list = List.of(booking);
         when(userRepository.findById(anyLong())).thenReturn(Optional.of(user));
-        when(bookingRepository.findAllByBookingUserAndStartIsBeforeAndEndIsAfterOrderByStart(any(User.class),
-                any(LocalDateTime.class), any(LocalDateTime.class), any(Pageable.class)))
-                .thenReturn(list);
-        List<Booking> orderBooking = bookingService.getUserBookings(user.getId(), "CURRENT", from, size);
+        when(bookingRepository.findByBookerAndState(eq(user.getId()), eq(BookingState.CURRENT), any(LocalDateTime.class),
+                any(Pageable.class))).thenReturn(list);
+        List<Booking> orderBooking = bookingService.getUserBookings(user.getId(), "CURRENT", 1, 1);
         assertFalse(orderBooking.isEmpty());
         assertEquals(1, orderBooking.size(), "Некорректно отработал метод");
-        verify(bookingRepository, never()).findAllByBookingUserOrderByStartDesc(any(User.class), any(Pageable.class));
-        verify(bookingRepository, times(1)).findAllByBookingUserAndStartIsBeforeAndEndIsAfterOrderByStart(any(User.class),
-                any(LocalDateTime.class), any(LocalDateTime.class), any(Pageable.class));
+        verify(bookingRepository, times(1)).findByBookerAndState(anyLong(), any(BookingState.class),
+                any(LocalDateTime.class), any(Pageable.class));
     }
 
     @Test
     void getUserBookings_whenStatusEqualsFUTURE_thenReturnBookingList() {
         List<Booking> list = List.of(booking);
         when(userRepository.findById(anyLong())).thenReturn(Optional.of(user));
-        when(bookingRepository.findAllByBookingUserAndStartIsAfterOrderByStartDesc(any(User.class),
-                any(LocalDateTime.class), any(Pageable.class))).thenReturn(list);
+        when(bookingRepository.findByBookerAndState(eq(user.getId()), eq(BookingState.FUTURE), any(LocalDateTime.class),
+                any(Pageable.class))).thenReturn(list);
         List<Booking> orderBooking = bookingService.getUserBookings(user.getId(), "FUTURE", 1, 1);
         assertFalse(orderBooking.isEmpty());
         assertEquals(1, orderBooking.size(), "Некорректно отработал метод");
-        verify(bookingRepository, never()).findAllByBookingUserOrderByStartDesc(any(User.class), any(Pageable.class));
-        verify(bookingRepository, never()).findAllByBookingUserAndStartIsBeforeAndEndIsAfterOrderByStart(any(User.class),
-                any(LocalDateTime.class), any(LocalDateTime.class), any(Pageable.class));
-        verify(bookingRepository, times(1)).findAllByBookingUserAndStartIsAfterOrderByStartDesc(any(User.class),
+        verify(bookingRepository, times(1)).findByBookerAndState(anyLong(), any(BookingState.class),
                 any(LocalDateTime.class), any(Pageable.class));
     }
 
@@ -249,15 +296,12 @@ class BookingServiceImplTest {
     void getUserBookings_whenStatusEqualsPAST_thenReturnBookingList() {
         List<Booking> list = List.of(booking);
         when(userRepository.findById(anyLong())).thenReturn(Optional.of(user));
-        when(bookingRepository.findAllByBookingUserAndEndIsBeforeOrderByStartDesc(any(User.class),
-                any(LocalDateTime.class), any(Pageable.class))).thenReturn(list);
+        when(bookingRepository.findByBookerAndState(eq(user.getId()), eq(BookingState.PAST), any(LocalDateTime.class),
+                any(Pageable.class))).thenReturn(list);
         List<Booking> orderBooking = bookingService.getUserBookings(user.getId(), "PAST", 1, 1);
         assertFalse(orderBooking.isEmpty());
         assertEquals(1, orderBooking.size(), "Некорректно отработал метод");
-        verify(bookingRepository, never()).findAllByBookingUserOrderByStartDesc(any(User.class), any(Pageable.class));
-        verify(bookingRepository, never()).findAllByBookingUserAndStartIsBeforeAndEndIsAfterOrderByStart(any(User.class),
-                any(LocalDateTime.class), any(LocalDateTime.class), any(Pageable.class));
-        verify(bookingRepository, never()).findAllByBookingUserAndStartIsAfterOrderByStartDesc(any(User.class),
+        verify(bookingRepository, times(1)).findByBookerAndState(anyLong(), any(BookingState.class),
                 any(LocalDateTime.class), any(Pageable.class));
     }
 
@@ -265,17 +309,12 @@ class BookingServiceImplTest {
     void getUserBookings_whenStatusEqualsWAITING_thenReturnBookingList() {
         List<Booking> list = List.of(booking);
         when(userRepository.findById(anyLong())).thenReturn(Optional.of(user));
-        when(bookingRepository.findAllByBookingUserAndStatusEqualsOrderByStartDesc(any(User.class),
-                any(BookingStatus.class), any(Pageable.class))).thenReturn(list);
+        when(bookingRepository.findByBookerAndState(eq(user.getId()), eq(BookingState.WAITING), any(LocalDateTime.class),
+                any(Pageable.class))).thenReturn(list);
         List<Booking> orderBooking = bookingService.getUserBookings(user.getId(), "WAITING", 1, 1);
         assertFalse(orderBooking.isEmpty());
         assertEquals(1, orderBooking.size(), "Некорректно отработал метод");
-        verify(bookingRepository, never()).findAllByBookingUserOrderByStartDesc(any(User.class), any(Pageable.class));
-        verify(bookingRepository, never()).findAllByBookingUserAndStartIsBeforeAndEndIsAfterOrderByStart(any(User.class),
-                any(LocalDateTime.class), any(LocalDateTime.class), any(Pageable.class));
-        verify(bookingRepository, never()).findAllByBookingUserAndStartIsAfterOrderByStartDesc(any(User.class),
-                any(LocalDateTime.class), any(Pageable.class));
-        verify(bookingRepository, never()).findAllByBookingUserAndEndIsBeforeOrderByStartDesc(any(User.class),
+        verify(bookingRepository, times(1)).findByBookerAndState(anyLong(), any(BookingState.class),
                 any(LocalDateTime.class), any(Pageable.class));
     }
 
@@ -283,157 +322,126 @@ class BookingServiceImplTest {
     void getUserBookings_whenStatusEqualsREJECTED_thenReturnBookingList() {
         List<Booking> list = List.of(booking);
         when(userRepository.findById(anyLong())).thenReturn(Optional.of(user));
-        when(bookingRepository.findAllByBookingUserAndStatusEqualsOrderByStartDesc(any(User.class),
-                any(BookingStatus.class), any(Pageable.class))).thenReturn(list);
+        when(bookingRepository.findByBookerAndState(eq(user.getId()), eq(BookingState.REJECTED), any(LocalDateTime.class),
+                any(Pageable.class))).thenReturn(list);
         List<Booking> orderBooking = bookingService.getUserBookings(user.getId(), "REJECTED", 1, 1);
         assertFalse(orderBooking.isEmpty());
         assertEquals(1, orderBooking.size(), "Некорректно отработал метод");
-        verify(bookingRepository, never()).findAllByBookingUserOrderByStartDesc(any(User.class), any(Pageable.class));
-        verify(bookingRepository, never()).findAllByBookingUserAndStartIsBeforeAndEndIsAfterOrderByStart(any(User.class),
-                any(LocalDateTime.class), any(LocalDateTime.class), any(Pageable.class));
-        verify(bookingRepository, never()).findAllByBookingUserAndStartIsAfterOrderByStartDesc(any(User.class),
-                any(LocalDateTime.class), any(Pageable.class));
-        verify(bookingRepository, never()).findAllByBookingUserAndEndIsBeforeOrderByStartDesc(any(User.class),
+        verify(bookingRepository, times(1)).findByBookerAndState(anyLong(), any(BookingState.class),
                 any(LocalDateTime.class), any(Pageable.class));
-        verify(bookingRepository, times(1)).findAllByBookingUserAndStatusEqualsOrderByStartDesc(any(User.class),
-                any(BookingStatus.class), any(Pageable.class));
+    }
+
+    @Test
+    void getUserBookings_whenMoreBookingsThanSize_thenReturnNextCursorFromLastOnPage() {
+        Booking older = BookingMapper.toBooking(request, item, user, BookingStatus.WAITING);
+        older.setId(2L);
+        older.setStart(booking.getStart().minusDays(1));
+        when(userRepository.findById(anyLong())).thenReturn(Optional.of(user));
+        when(bookingRepository.findByBookerAndState(eq(user.getId()), eq(BookingState.ALL), any(LocalDateTime.class),
+                isNull(), eq(2))).thenReturn(List.of(booking, older));
+
+        CursorPage<Booking> page = bookingService.getUserBookings(user.getId(), "ALL", (String) null, 1);
+
+        assertEquals(List.of(booking), page.getItems());
+        assertEquals(new KeysetCursor(booking.getStart(), booking.getId()), KeysetCursor.decode(page.getNextCursor()));
+    }
+
+    @Test
+    void getUserItems_whenLastKeysetPage_thenReturnWithoutNextCursor() {
+        KeysetCursor cursor = new KeysetCursor(LocalDateTime.now(), 5L);
+        when(userRepository.findById(anyLong())).thenReturn(Optional.of(user));
+        when(bookingRepository.findByOwnerAndState(eq(user.getId()), eq(BookingState.WAITING), any(LocalDateTime.class),
+                eq(cursor), eq(3))).thenReturn(List.of(booking));
+
+        CursorPage<Booking> page = bookingService.getUserItems(user.getId(), "WAITING", cursor.encode(), 2);
+
+        assertEquals(List.of(booking), page.getItems());
+        assertNull(page.getNextCursor());
     }
 
     @Test
     void getUserBookings_whenStatusNotValid_thenReturnThrows() {
         when(userRepository.findById(anyLong())).thenReturn(Optional.of(user));
         assertThrows(ValidationException.class, () -> bookingService.getUserBookings(user.getId(), "RRR", 1, 1));
+        verifyNoInteractions(bookingRepository);
     }
 
     @Test
     void getUserItems_whenStatusEqualsALL_thenReturnListBookings() {
         List<Booking> list = List.of(booking);
         when(userRepository.findById(anyLong())).thenReturn(Optional.of(user));
-        when(bookingRepository.findAllByItemOwnerOrderByStartDesc(any(User.class), any(Pageable.class)))
-                .thenReturn(list);
+        when(bookingRepository.findByOwnerAndState(eq(user.getId()), eq(BookingState.ALL), any(LocalDateTime.class),
+                any(Pageable.class))).thenReturn(list);
         List<Booking> bookings = bookingService.getUserItems(user.getId(), "ALL", 1, 1);
         assertFalse(bookings.isEmpty());
         assertEquals(1, bookings.size(), "некорректно отработал метод");
-        verify(bookingRepository, times(1))
-                .findAllByItemOwnerOrderByStartDesc(any(User.class), any(Pageable.class));
-        verify(bookingRepository, never()).findAllByItemOwnerAndStartIsBeforeAndEndIsAfterOrderByStart(any(User.class),
-                any(LocalDateTime.class), any(LocalDateTime.class), any(Pageable.class));
-        verify(bookingRepository, never()).findAllByItemOwnerAndStartIsAfterOrderByStartDesc(any(User.class),
+        verify(bookingRepository, never()).findByBookerAndState(anyLong(), any(BookingState.class),
                 any(LocalDateTime.class), any(Pageable.class));
-        verify(bookingRepository, never()).findAllByItemOwnerAndEndIsBeforeOrderByStartDesc(any(User.class),
-                any(LocalDateTime.class), any(Pageable.class));
-        verify(bookingRepository, never()).findAllByItemOwnerAndStatusEqualsOrderByStartDesc(any(User.class),
-                any(BookingStatus.class), any(Pageable.class));
     }
 
     @Test
     void getUserItems_whenStatusEqualsCURRENT_thenReturnListBookings() {
         List<Booking> list = List.of(booking);
         when(userRepository.findById(anyLong())).thenReturn(Optional.of(user));
-        when(bookingRepository.findAllByItemOwnerAndStartIsBeforeAndEndIsAfterOrderByStart(any(User.class), any(LocalDateTime.class),
-                any(LocalDateTime.class), any(Pageable.class)))
-                .thenReturn(list);
+        when(bookingRepository.findByOwnerAndState(eq(user.getId()), eq(BookingState.CURRENT), any(LocalDateTime.class),
+                any(Pageable.class))).thenReturn(list);
         List<Booking> bookings = bookingService.getUserItems(user.getId(), "CURRENT", 1, 1);
         assertFalse(bookings.isEmpty());
         assertEquals(1, bookings.size(), "некорректно отработал метод");
-        verify(bookingRepository, never())
-                .findAllByItemOwnerOrderByStartDesc(any(User.class), any(Pageable.class));
-        verify(bookingRepository, times(1)).findAllByItemOwnerAndStartIsBeforeAndEndIsAfterOrderByStart(any(User.class),
-                any(LocalDateTime.class), any(LocalDateTime.class), any(Pageable.class));
-        verify(bookingRepository, never()).findAllByItemOwnerAndStartIsAfterOrderByStartDesc(any(User.class),
-                any(LocalDateTime.class), any(Pageable.class));
-        verify(bookingRepository, never()).findAllByItemOwnerAndEndIsBeforeOrderByStartDesc(any(User.class),
+        verify(bookingRepository, never()).findByBookerAndState(anyLong(), any(BookingState.class),
                 any(LocalDateTime.class), any(Pageable.class));
-        verify(bookingRepository, never()).findAllByItemOwnerAndStatusEqualsOrderByStartDesc(any(User.class),
-                any(BookingStatus.class), any(Pageable.class));
     }
 
     @Test
     void getUserItems_whenStatusEqualsFUTURE_thenReturnListBookings() {
         List<Booking> list = List.of(booking);
         when(userRepository.findById(anyLong())).thenReturn(Optional.of(user));
-        when(bookingRepository.findAllByItemOwnerAndStartIsAfterOrderByStartDesc(any(User.class),
-                any(LocalDateTime.class), any(Pageable.class)))
-                .thenReturn(list);
+        when(bookingRepository.findByOwnerAndState(eq(user.getId()), eq(BookingState.FUTURE), any(LocalDateTime.class),
+                any(Pageable.class))).thenReturn(list);
         List<Booking> bookings = bookingService.getUserItems(user.getId(), "FUTURE", 1, 1);
         assertFalse(bookings.isEmpty());
         assertEquals(1, bookings.size(), "некорректно отработал метод");
-        verify(bookingRepository, never())
-                .findAllByItemOwnerOrderByStartDesc(any(User.class), any(Pageable.class));
-        verify(bookingRepository, never()).findAllByItemOwnerAndStartIsBeforeAndEndIsAfterOrderByStart(any(User.class),
-                any(LocalDateTime.class), any(LocalDateTime.class), any(Pageable.class));
-        verify(bookingRepository, times(1)).findAllByItemOwnerAndStartIsAfterOrderByStartDesc(any(User.class),
-                any(LocalDateTime.class), any(Pageable.class));
-        verify(bookingRepository, never()).findAllByItemOwnerAndEndIsBeforeOrderByStartDesc(any(User.class),
+        verify(bookingRepository, never()).findByBookerAndState(anyLong(), any(BookingState.class),
                 any(LocalDateTime.class), any(Pageable.class));
-        verify(bookingRepository, never()).findAllByItemOwnerAndStatusEqualsOrderByStartDesc(any(User.class),
-                any(BookingStatus.class), any(Pageable.class));
     }
 
     @Test
     void getUserItems_whenStatusEqualsPAST_thenReturnListBookings() {
         List<Booking> list = List.of(booking);
         when(userRepository.findById(anyLong())).thenReturn(Optional.of(user));
-        when(bookingRepository.findAllByItemOwnerAndEndIsBeforeOrderByStartDesc(any(User.class),
-                any(LocalDateTime.class), any(Pageable.class)))
-                .thenReturn(list);
+        when(bookingRepository.findByOwnerAndState(eq(user.getId()), eq(BookingState.PAST), any(LocalDateTime.class),
+                any(Pageable.class))).thenReturn(list);
         List<Booking> bookings = bookingService.getUserItems(user.getId(), "PAST", 1, 1);
         assertFalse(bookings.isEmpty());
         assertEquals(1, bookings.size(), "некорректно отработал метод");
-        verify(bookingRepository, never())
-                .findAllByItemOwnerOrderByStartDesc(any(User.class), any(Pageable.class));
-        verify(bookingRepository, never()).findAllByItemOwnerAndStartIsBeforeAndEndIsAfterOrderByStart(any(User.class),
-                any(LocalDateTime.class), any(LocalDateTime.class), any(Pageable.class));
-        verify(bookingRepository, never()).findAllByItemOwnerAndStartIsAfterOrderByStartDesc(any(User.class),
+        verify(bookingRepository, never()).findByBookerAndState(anyLong(), any(BookingState.class),
                 any(LocalDateTime.class), any(Pageable.class));
-        verify(bookingRepository, times(1)).findAllByItemOwnerAndEndIsBeforeOrderByStartDesc(any(User.class),
-                any(LocalDateTime.class), any(Pageable.class));
-        verify(bookingRepository, never()).findAllByItemOwnerAndStatusEqualsOrderByStartDesc(any(User.class),
-                any(BookingStatus.class), any(Pageable.class));
     }
 
     @Test
     void getUserItems_whenStatusEqualsWAITING_thenReturnListBookings() {
         List<Booking> list = List.of(booking);
         when(userRepository.findById(anyLong())).thenReturn(Optional.of(user));
-        when(bookingRepository.findAllByItemOwnerAndStatusEqualsOrderByStartDesc(any(User.class),
-                any(BookingStatus.class), any(Pageable.class)))
-                .thenReturn(list);
+        when(bookingRepository.findByOwnerAndState(eq(user.getId()), eq(BookingState.WAITING), any(LocalDateTime.class),
+                any(Pageable.class))).thenReturn(list);
         List<Booking> bookings = bookingService.getUserItems(user.getId(), "WAITING", 1, 1);
         assertFalse(bookings.isEmpty());
         assertEquals(1, bookings.size(), "некорректно отработал метод");
-        verify(bookingRepository, never())
-                .findAllByItemOwnerOrderByStartDesc(any(User.class), any(Pageable.class));
-        verify(bookingRepository, never()).findAllByItemOwnerAndStartIsBeforeAndEndIsAfterOrderByStart(any(User.class),
-                any(LocalDateTime.class), any(LocalDateTime.class), any(Pageable.class));
-        verify(bookingRepository, never()).findAllByItemOwnerAndStartIsAfterOrderByStartDesc(any(User.class),
-                any(LocalDateTime.class), any(Pageable.class));
-        verify(bookingRepository, never()).findAllByItemOwnerAndEndIsBeforeOrderByStartDesc(any(User.class),
+        verify(bookingRepository, never()).findByBookerAndState(anyLong(), any(BookingState.class),
                 any(LocalDateTime.class), any(Pageable.class));
-        verify(bookingRepository, times(1)).findAllByItemOwnerAndStatusEqualsOrderByStartDesc(any(User.class),
-                any(BookingStatus.class), any(Pageable.class));
     }
 
     @Test
     void getUserItems_whenStatusEqualsREJECTED_thenReturnListBookings() {
         List<Booking> list = List.of(booking);
         when(userRepository.findById(anyLong())).thenReturn(Optional.of(user));
-        when(bookingRepository.findAllByItemOwnerAndStatusEqualsOrderByStartDesc(any(User.class),
-                any(BookingStatus.class), any(Pageable.class)))
-                .thenReturn(list);
+        when(bookingRepository.findByOwnerAndState(eq(user.getId()), eq(BookingState.REJECTED), any(LocalDateTime.class),
+                any(Pageable.class))).thenReturn(list);
         List<Booking> bookings = bookingService.getUserItems(user.getId(), "REJECTED", 1, 1);
         assertFalse(bookings.isEmpty());
         assertEquals(1, bookings.size(), "некорректно отработал метод");
-        verify(bookingRepository, never())
-                .findAllByItemOwnerOrderByStartDesc(any(User.class), any(Pageable.class));
-        verify(bookingRepository, never()).findAllByItemOwnerAndStartIsBeforeAndEndIsAfterOrderByStart(any(User.class),
-                any(LocalDateTime.class), any(LocalDateTime.class), any(Pageable.class));
-        verify(bookingRepository, never()).findAllByItemOwnerAndStartIsAfterOrderByStartDesc(any(User.class),
-                any(LocalDateTime.class), any(Pageable.class));
-        verify(bookingRepository, never()).findAllByItemOwnerAndEndIsBeforeOrderByStartDesc(any(User.class),
+        verify(bookingRepository, never()).findByBookerAndState(anyLong(), any(BookingState.class),
                 any(LocalDateTime.class), any(Pageable.class));
-        verify(bookingRepository, times(1)).findAllByItemOwnerAndStatusEqualsOrderByStartDesc(any(User.class),
-                any(BookingStatus.class), any(Pageable.class));
     }
 
     @Test
@@ -0,0 +1,153 @@
+package ru.practicum.shareit.booking.service;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InOrder;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Pageable;
+import ru.practicum.shareit.booking.dto.ItemBookingView;
+import ru.practicum.shareit.booking.enums.BookingStatus;
+import ru.practicum.shareit.booking.model.ItemBookingSummary;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.booking.repository.ItemBookingSummaryRepository;
+import ru.practicum.shareit.item.repository.ItemRepository;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ItemBookingSummaryServiceTest {
+    @InjectMocks
+    private ItemBookingSummaryService itemBookingSummaryService;
+    @Mock
+    private BookingRepository bookingRepository;
+    @Mock
+    private ItemBookingSummaryRepository itemBookingSummaryRepository;
+    @Mock
+    private ItemRepository itemRepository;
+
+    @Test
+    void refresh_whenBookingsFound_thenSaveLastNextAndCurrent() {
+        LocalDateTime now = LocalDateTime.now();
+        when(bookingRepository.findLastAndNextByItemIds(eq(List.of(1L)), any(LocalDateTime.class))).thenReturn(List.of(
+                booking(1L, 10L, 3L, "APPROVED", now.minusDays(1), now.plusDays(1), 1),
+                booking(1L, 11L, 4L, "WAITING", now.plusDays(2), now.plusDays(3), 0)));
+        when(bookingRepository.findCurrentByItemIds(eq(List.of(1L)), any(LocalDateTime.class))).thenReturn(List.of(
+                booking(1L, 10L, 3L, "APPROVED", now.minusDays(1), now.plusDays(1), 1)));
+
+        itemBookingSummaryService.refresh(List.of(1L));
+
+        ItemBookingSummary summary = savedSummaries().get(0);
+        assertEquals(10L, summary.getLastBookingId());
+        assertEquals(BookingStatus.APPROVED, summary.getLastStatus());
+        assertEquals(11L, summary.getNextBookingId());
+        assertEquals(4L, summary.getNextBookerId());
+        assertEquals(now.plusDays(2), summary.getNextStart());
+        assertEquals(10L, summary.getCurrentBookingId());
+        assertEquals(now.plusDays(1), summary.getCurrentEnd());
+    }
+
+    @Test
+    void refresh_whenCalled_thenLockItemRowsBeforeReadingBookings() {
+        itemBookingSummaryService.refresh(List.of(1L, 2L));
+
+        InOrder inOrder = inOrder(itemRepository, bookingRepository, itemBookingSummaryRepository);
+        inOrder.verify(itemRepository).lockByIds(List.of(1L, 2L));
+        inOrder.verify(bookingRepository).findLastAndNextByItemIds(eq(List.of(1L, 2L)), any(LocalDateTime.class));
+        inOrder.verify(itemBookingSummaryRepository).saveAll(anyCollection());
+    }
+
+    @Test
+    void findByItemIds_whenNextBookingStarted_thenRefreshOnlyStaleSummaries() {
+        LocalDateTime now = LocalDateTime.now();
+        ItemBookingSummary fresh = ItemBookingSummary.builder()
+                .itemId(1L)
+                .nextBookingId(5L)
+                .nextStart(now.plusDays(1))
+                .build();
+        ItemBookingSummary stale = ItemBookingSummary.builder()
+                .itemId(2L)
+                .nextBookingId(6L)
+                .nextStart(now.minusMinutes(1))
+                .build();
+        when(itemBookingSummaryRepository.findAllById(List.of(1L, 2L))).thenReturn(List.of(fresh, stale));
+        when(bookingRepository.findLastAndNextByItemIds(eq(List.of(2L)), any(LocalDateTime.class))).thenReturn(List.of(
+                booking(2L, 6L, 3L, "APPROVED", now.minusMinutes(1), now.plusDays(1), 1)));
+        when(bookingRepository.findCurrentByItemIds(eq(List.of(2L)), any(LocalDateTime.class))).thenReturn(List.of());
+
+        Map<Long, ItemBookingSummary> summaries = itemBookingSummaryService.findByItemIds(List.of(1L, 2L));
+
+        assertSame(fresh, summaries.get(1L));
+        assertEquals(6L, summaries.get(2L).getLastBookingId());
+        assertNull(summaries.get(2L).getNextBookingId());
+        assertEquals(1, savedSummaries().size());
+    }
+
+    @Test
+    void rollForward_whenStaleSummariesFound_thenRefreshThem() {
+        when(itemBookingSummaryRepository.findStaleItemIds(any(LocalDateTime.class), any(Pageable.class)))
+                .thenReturn(List.of(3L));
+        when(bookingRepository.findLastAndNextByItemIds(eq(List.of(3L)), any(LocalDateTime.class))).thenReturn(List.of());
+        when(bookingRepository.findCurrentByItemIds(eq(List.of(3L)), any(LocalDateTime.class))).thenReturn(List.of());
+
+        itemBookingSummaryService.rollForward();
+
+        assertEquals(3L, savedSummaries().get(0).getItemId());
+    }
+
+    @SuppressWarnings("unchecked")
+    private List<ItemBookingSummary> savedSummaries() {
+        ArgumentCaptor<Collection<ItemBookingSummary>> captor = ArgumentCaptor.forClass(Collection.class);
+        verify(itemBookingSummaryRepository).saveAll(captor.capture());
+        return new ArrayList<>(captor.getValue());
+    }
+
+    private ItemBookingView booking(long itemId, long id, long bookerId, String status,
+                                    LocalDateTime start, LocalDateTime end, int past) {
+        return new ItemBookingView() {
+            @Override
+            public Long getItemId() {
+                return itemId;
+            }
+
+            @Override
+            public Long getId() {
+                return id;
+            }
+
+            @Override
+            public Long getBookerId() {
+                return bookerId;
+            }
+
+            @Override
+            public String getStatus() {
+                return status;
+            }
+
+            @Override
+            public LocalDateTime getBookingStart() {
+                return start;
+            }
+
+            @Override
+            public LocalDateTime getBookingEnd() {
+                return end;
+            }
+
+            @Override
+            public Integer getPast() {
+                return past;
+            }
+        };
+    }
+}
@@ -0,0 +1,151 @@
+package ru.practicum.shareit.booking.timeline;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import ru.practicum.shareit.booking.dto.BookingIntervalView;
+import ru.practicum.shareit.booking.enums.BookingStatus;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.user.model.User;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class BookingTimelineCacheTest {
+    @Mock
+    private BookingRepository bookingRepository;
+
+    private MeterRegistry meterRegistry;
+    private BookingTimelineCache cache;
+    private LocalDateTime now;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        cache = new BookingTimelineCache(bookingRepository, meterRegistry, 2);
+        now = LocalDateTime.now();
+    }
+
+    @Test
+    void get_whenRequestedTwice_thenLoadOnce() {
+        when(bookingRepository.findIntervalsByItemId(1L)).thenReturn(List.of(
+                view(5L, 7L, "APPROVED", now.minusDays(2), now.minusDays(1))));
+
+        assertTrue(cache.get(1L).hasFinishedBooking(7L, now));
+        assertTrue(cache.get(1L).hasFinishedBooking(7L, now));
+
+        verify(bookingRepository, times(1)).findIntervalsByItemId(1L);
+        assertEquals(1.0, meterRegistry.get("cache.gets").tag("result", "hit").counter().count(), 0.0);
+    }
+
+    @Test
+    void get_whenMoreItemsThanLimit_thenEvictLeastRecentlyUsed() {
+        when(bookingRepository.findIntervalsByItemId(anyLong())).thenReturn(List.of());
+
+        cache.get(1L);
+        cache.get(2L);
+        cache.get(1L);
+        cache.get(3L);
+        cache.get(1L);
+        cache.get(2L);
+
+        assertEquals(2, cache.size());
+        verify(bookingRepository, times(1)).findIntervalsByItemId(1L);
+        verify(bookingRepository, times(2)).findIntervalsByItemId(2L);
+        assertEquals(2.0, meterRegistry.get("cache.evictions").counter().count(), 0.0);
+    }
+
+    @Test
+    void record_whenTimelineCached_thenUpdateWithoutReload() {
+        when(bookingRepository.findIntervalsByItemId(1L)).thenReturn(List.of());
+        cache.get(1L);
+
+        cache.record(booking(1L, 8L, 9L, now.minusDays(1), now.plusDays(1)));
+
+        BookingTimeline timeline = cache.get(1L);
+        assertEquals(8L, timeline.current(now).orElseThrow().getId());
+        assertTrue(timeline.overlaps(now, now.plusHours(1)));
+        verify(bookingRepository, times(1)).findIntervalsByItemId(1L);
+    }
+
+    @Test
+    void record_whenTimelineNotCached_thenLoadLazilyLater() {
+        cache.record(booking(1L, 8L, 9L, now.minusDays(1), now.plusDays(1)));
+
+        assertEquals(0, cache.size());
+        verifyNoInteractions(bookingRepository);
+    }
+
+    @Test
+    void hasFinishedBooking_whenTimelineCached_thenAnswerWithoutQuery() {
+        when(bookingRepository.findIntervalsByItemId(1L)).thenReturn(List.of(
+                view(5L, 7L, "APPROVED", now.minusDays(2), now.minusDays(1))));
+        cache.get(1L);
+
+        assertTrue(cache.hasFinishedBooking(1L, 7L, now));
+        assertFalse(cache.hasFinishedBooking(1L, 8L, now));
+
+        verify(bookingRepository, never()).existsByBookingUserIdAndItemIdAndEndIsBefore(anyLong(), anyLong(), any());
+    }
+
+    @Test
+    void hasFinishedBooking_whenTimelineNotCached_thenQueryWithoutLoadingTimeline() {
+        when(bookingRepository.existsByBookingUserIdAndItemIdAndEndIsBefore(7L, 1L, now)).thenReturn(true);
+
+        assertTrue(cache.hasFinishedBooking(1L, 7L, now));
+
+        assertEquals(0, cache.size());
+        verify(bookingRepository, never()).findIntervalsByItemId(anyLong());
+        assertEquals(1.0, meterRegistry.get("cache.gets").tag("result", "miss").counter().count(), 0.0);
+    }
+
+    private Booking booking(long itemId, long id, long bookerId, LocalDateTime start, LocalDateTime end) {
+        return Booking.builder()
+                .id(id)
+                .item(Item.builder().id(itemId).build())
+                .bookingUser(User.builder().id(bookerId).build())
+                .start(start)
+                .end(end)
+                .status(BookingStatus.WAITING)
+                .build();
+    }
+
+    private BookingIntervalView view(long id, long bookerId, String status, LocalDateTime start, LocalDateTime end) {
+        return new BookingIntervalView() {
+            @Override
+            public Long getId() {
+                return id;
+            }
+
+            @Override
+            public Long getBookerId() {
+                return bookerId;
+            }
+
+            @Override
+            public String getStatus() {
+                return status;
+            }
+
+            @Override
+            public LocalDateTime getBookingStart() {
+                return start;
+            }
+
+            @Override
+            public LocalDateTime getBookingEnd() {
+                return end;
+            }
+        };
+    }
+}
@@ -0,0 +1,83 @@
+package ru.practicum.shareit.booking.timeline;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import ru.practicum.shareit.booking.enums.BookingStatus;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BookingTimelineTest {
+
+    private LocalDateTime now;
+    private BookingTimeline timeline;
+
+    @BeforeEach
+    void setUp() {
+        now = LocalDateTime.of(2024, 5, 10, 12, 0);
+        timeline = BookingTimeline.of(List.of(
+                interval(4L, 20L, BookingStatus.WAITING, now.plusDays(3), now.plusDays(4)),
+                interval(1L, 10L, BookingStatus.APPROVED, now.minusDays(10), now.minusDays(8)),
+                interval(2L, 11L, BookingStatus.APPROVED, now.minusDays(2), now.plusDays(1)),
+                interval(3L, 12L, BookingStatus.REJECTED, now.minusHours(1), now.plusDays(2))));
+    }
+
+    @Test
+    void lastAndNext_whenBookingsAroundNow_thenReturnNearestStarts() {
+        assertEquals(3L, timeline.last(now).orElseThrow().getId());
+        assertEquals(4L, timeline.next(now).orElseThrow().getId());
+        assertTrue(timeline.next(now.plusDays(5)).isEmpty());
+        assertTrue(timeline.last(now.minusDays(11)).isEmpty());
+    }
+
+    @Test
+    void current_whenLatestStartedBookingRejected_thenSkipIt() {
+        assertEquals(2L, timeline.current(now).orElseThrow().getId());
+        assertTrue(timeline.current(now.plusDays(2)).isEmpty());
+        assertTrue(timeline.current(now.minusDays(5)).isEmpty());
+    }
+
+    @Test
+    void overlaps_whenRangeTouchesOnlyRejectedOrAdjacentBookings_thenFalse() {
+        assertTrue(timeline.overlaps(now.minusDays(9), now.minusDays(7)));
+        assertTrue(timeline.overlaps(now.plusHours(1), now.plusHours(2)));
+        assertFalse(timeline.overlaps(now.plusDays(1), now.plusDays(3)));
+        assertFalse(timeline.overlaps(now.minusDays(8), now.minusDays(2)));
+        assertFalse(timeline.overlaps(now.plusDays(4), now.plusDays(6)));
+    }
+
+    @Test
+    void hasFinishedBooking_whenBookerHasEndedBooking_thenTrue() {
+        assertTrue(timeline.hasFinishedBooking(10L, now));
+        assertFalse(timeline.hasFinishedBooking(11L, now));
+        assertFalse(timeline.hasFinishedBooking(99L, now));
+    }
+
+    @Test
+    void with_whenStatusChanged_thenReplaceBookingById() {
+        BookingTimeline updated = timeline.with(interval(3L, 12L, BookingStatus.APPROVED, now.minusHours(1),
+                now.plusDays(2)));
+
+        assertEquals(4, updated.size());
+        assertEquals(3L, updated.current(now).orElseThrow().getId());
+        assertTrue(updated.overlaps(now.plusDays(1), now.plusDays(3)));
+        assertEquals(2L, timeline.current(now).orElseThrow().getId());
+    }
+
+    @Test
+    void of_whenNoBookings_thenAnswerEmpty() {
+        BookingTimeline empty = BookingTimeline.of(List.of());
+
+        assertTrue(empty.last(now).isEmpty());
+        assertTrue(empty.next(now).isEmpty());
+        assertTrue(empty.current(now).isEmpty());
+        assertFalse(empty.overlaps(now, now.plusDays(1)));
+    }
+
+    private BookingInterval interval(long id, long bookerId, BookingStatus status, LocalDateTime start,
+                                     LocalDateTime end) {
+        return new BookingInterval(id, bookerId, status, start, end);
+    }
+}
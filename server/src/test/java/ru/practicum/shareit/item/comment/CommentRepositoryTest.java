@@ -5,6 +5,7 @@ import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.data.domain.PageRequest;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.item.repository.ItemRepository;
 import ru.practicum.shareit.request.ItemRequestRepository;
@@ -13,6 +14,7 @@ import ru.practicum.shareit.user.model.User;
 import ru.practicum.shareit.user.repository.UserRepository;
 
 import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
 import java.util.List;
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -67,15 +69,59 @@ class CommentRepositoryTest {
                 .item(item)
                 .text("text")
                 .author(user)
-                .created(LocalDateTime.now())
+                .created(LocalDateTime.now().truncatedTo(ChronoUnit.MICROS))
                 .build();
         commentRepository.save(comment);
     }
 
     @Test
-    void findAllByItem() {
-        List<Comment> comments = commentRepository.findAllByItem(item);
+    void findNewestByItemIds() {
+        Comment newer = saveComment("новее", comment.getCreated().plusMinutes(1));
+
+        List<CommentView> comments = commentRepository.findNewestByItemIds(List.of(item.getId(), item.getId() + 100), 1);
+
         assertEquals(1, comments.size());
+        assertEquals(newer.getId(), comments.get(0).getId());
+        assertEquals(item.getId(), comments.get(0).getItemId());
+        assertEquals(user.getName(), comments.get(0).getAuthorName());
+    }
+
+    @Test
+    void findPageByItemIdAfter_whenSameCreated_thenOrderById() {
+        Comment sameTime = saveComment("тот же момент", comment.getCreated());
+        Comment older = saveComment("старее", comment.getCreated().minusMinutes(1));
+
+        List<Comment> firstPage = commentRepository.findFirstPageByItemId(item.getId(), PageRequest.of(0, 2));
+        List<Comment> secondPage = commentRepository.findPageByItemIdAfter(item.getId(),
+                firstPage.get(1).getCreated(), firstPage.get(1).getId(), PageRequest.of(0, 2));
+
+        assertEquals(List.of(sameTime.getId(), comment.getId()),
+                List.of(firstPage.get(0).getId(), firstPage.get(1).getId()));
+        assertEquals(1, secondPage.size());
+        assertEquals(older.getId(), secondPage.get(0).getId());
+        assertEquals(user.getName(), secondPage.get(0).getAuthor().getName());
+    }
+
+    @Test
+    void saveAll_whenBatchSaved_thenAssignDistinctSequenceIds() {
+        List<Comment> comments = commentRepository.saveAll(List.of(
+                Comment.builder().item(item).text("первый").author(user).created(LocalDateTime.now()).build(),
+                Comment.builder().item(item).text("второй").author(user).created(LocalDateTime.now()).build(),
+                Comment.builder().item(item).text("третий").author(user).created(LocalDateTime.now()).build()));
+        commentRepository.flush();
+
+        assertEquals(3, comments.stream().map(Comment::getId).distinct().count());
+        assertTrue(comments.stream().allMatch(saved -> saved.getId() > 0));
+        assertEquals(4, commentRepository.findFirstPageByItemId(item.getId(), PageRequest.of(0, 10)).size());
+    }
+
+    private Comment saveComment(String text, LocalDateTime created) {
+        return commentRepository.save(Comment.builder()
+                .item(item)
+                .text(text)
+                .author(user)
+                .created(created)
+                .build());
     }
 
     @AfterEach
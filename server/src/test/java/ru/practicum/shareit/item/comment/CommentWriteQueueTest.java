@@ -0,0 +1,141 @@
+package ru.practicum.shareit.item.comment;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import ru.practicum.shareit.item.model.Item;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class CommentWriteQueueTest {
+    @Mock
+    private CommentWriter commentWriter;
+
+    private MeterRegistry meterRegistry;
+    private CommentWriteQueue queue;
+    private AtomicLong ids;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        ids = new AtomicLong();
+    }
+
+    @AfterEach
+    void tearDown() throws InterruptedException {
+        queue.shutdown();
+    }
+
+    @Test
+    void write_whenDisabled_thenWriteOnCallerThread() {
+        queue = new CommentWriteQueue(commentWriter, meterRegistry, false, 10, 5, 10, 5000);
+        when(commentWriter.write(anyList())).thenAnswer(invocation -> assignIds(invocation.getArgument(0)));
+
+        Comment saved = queue.write(comment("text"));
+
+        assertEquals(1L, saved.getId());
+        verify(commentWriter).write(anyList());
+    }
+
+    @Test
+    void write_whenEnabled_thenFlushConcurrentCommentsInOneBatch() {
+        queue = new CommentWriteQueue(commentWriter, meterRegistry, true, 3, 1000, 10, 5000);
+        when(commentWriter.write(anyList())).thenAnswer(invocation -> assignIds(invocation.getArgument(0)));
+
+        List<CompletableFuture<Comment>> writes = List.of("первый", "второй", "третий").stream()
+                .map(text -> CompletableFuture.supplyAsync(() -> queue.write(comment(text))))
+                .collect(Collectors.toList());
+        List<Comment> saved = writes.stream()
+                .map(CompletableFuture::join)
+                .collect(Collectors.toList());
+
+        assertTrue(saved.stream().allMatch(comment -> comment.getId() > 0));
+        verify(commentWriter, times(1)).write(anyList());
+        assertEquals(3.0, meterRegistry.get("comment.write.batch.size").summary().totalAmount(), 0.0);
+    }
+
+    @Test
+    void write_whenBatchFails_thenRetryCommentsOneByOne() {
+        queue = new CommentWriteQueue(commentWriter, meterRegistry, true, 2, 1000, 10, 5000);
+        when(commentWriter.write(anyList())).thenAnswer(invocation -> {
+            List<Comment> comments = invocation.getArgument(0);
+            if (comments.stream().anyMatch(comment -> comment.getText().equals("плохой"))) {
+                throw new IllegalStateException("ошибка записи");
+            }
+            return assignIds(comments);
+        });
+
+        CompletableFuture<Comment> good = CompletableFuture.supplyAsync(() -> queue.write(comment("хороший")));
+        CompletableFuture<Comment> bad = CompletableFuture.supplyAsync(() -> queue.write(comment("плохой")));
+
+        assertTrue(good.join().getId() > 0);
+        Throwable thrown = assertThrows(Exception.class, bad::join);
+        assertInstanceOf(IllegalStateException.class, thrown.getCause());
+        verify(commentWriter, times(3)).write(anyList());
+    }
+
+    @Test
+    void write_whenFlusherFailsWithError_thenFailBatchAndKeepServing() {
+        queue = new CommentWriteQueue(commentWriter, meterRegistry, true, 1, 1, 10, 5000);
+        when(commentWriter.write(anyList()))
+                .thenThrow(new AssertionError("сбой записи"))
+                .thenAnswer(invocation -> assignIds(invocation.getArgument(0)));
+
+        Throwable thrown = assertThrows(IllegalStateException.class, () -> queue.write(comment("первый")));
+        assertInstanceOf(AssertionError.class, thrown.getCause());
+
+        assertEquals(1L, queue.write(comment("второй")).getId());
+    }
+
+    @Test
+    void write_whenQueuedCommentNotFlushedInTime_thenThrowAndSkipIt() throws InterruptedException {
+        queue = new CommentWriteQueue(commentWriter, meterRegistry, true, 1, 1, 10, 50);
+        CountDownLatch flushing = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        List<String> written = new CopyOnWriteArrayList<>();
+        when(commentWriter.write(anyList())).thenAnswer(invocation -> {
+            List<Comment> comments = invocation.getArgument(0);
+            comments.forEach(comment -> written.add(comment.getText()));
+            flushing.countDown();
+            release.await();
+            return assignIds(comments);
+        });
+
+        CompletableFuture<Comment> blocking = CompletableFuture.supplyAsync(() -> queue.write(comment("первый")));
+        assertTrue(flushing.await(1, TimeUnit.SECONDS));
+        assertThrows(IllegalStateException.class, () -> queue.write(comment("второй")));
+        release.countDown();
+
+        assertEquals(1L, blocking.join().getId());
+        assertEquals(List.of("первый"), written);
+    }
+
+    private List<Comment> assignIds(List<Comment> comments) {
+        comments.forEach(comment -> comment.setId(ids.incrementAndGet()));
+        return comments;
+    }
+
+    private Comment comment(String text) {
+        return Comment.builder()
+                .text(text)
+                .item(Item.builder().id(1L).build())
+                .created(LocalDateTime.now())
+                .build();
+    }
+}
@@ -0,0 +1,44 @@
+package ru.practicum.shareit.item.comment;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.ItemRepository;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class CommentWriterTest {
+    @InjectMocks
+    private CommentWriter commentWriter;
+    @Mock
+    private CommentRepository commentRepository;
+    @Mock
+    private ItemRepository itemRepository;
+
+    @Test
+    void write_whenBatchHasSeveralItems_thenIncrementCountOncePerItem() {
+        List<Comment> comments = List.of(comment(1L), comment(2L), comment(1L));
+        when(commentRepository.saveAll(comments)).thenReturn(comments);
+
+        List<Comment> saved = commentWriter.write(comments);
+
+        assertEquals(3, saved.size());
+        verify(itemRepository).incrementCommentCount(1L, 2L);
+        verify(itemRepository).incrementCommentCount(2L, 1L);
+        verifyNoMoreInteractions(itemRepository);
+    }
+
+    private Comment comment(long itemId) {
+        return Comment.builder()
+                .text("text")
+                .item(Item.builder().id(itemId).build())
+                .build();
+    }
+}
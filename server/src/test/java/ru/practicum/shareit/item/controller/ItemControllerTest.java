@@ -15,10 +15,12 @@ import ru.practicum.shareit.item.comment.CommentDto;
 import ru.practicum.shareit.item.comment.CommentDtoInput;
 import ru.practicum.shareit.item.comment.CommentMapper;
 import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.dto.ItemSearchPage;
 import ru.practicum.shareit.item.dto.ItemWithCommentsAndBookings;
 import ru.practicum.shareit.item.mapper.ItemMapper;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.item.service.ItemService;
+import ru.practicum.shareit.pagination.CursorPage;
 import ru.practicum.shareit.request.dto.ItemRequest;
 import ru.practicum.shareit.user.model.User;
 
@@ -30,6 +32,7 @@ import static org.mockito.ArgumentMatchers.*;
 import static org.mockito.Mockito.*;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultHandlers.print;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
@@ -155,9 +158,9 @@ class ItemControllerTest {
     @SneakyThrows
     @Test
     void searchItem_whenInputValueValid_thenReturnListItemSearsh() {
-        List<Item> itemList = List.of(item);
+        List<ItemDto> itemList = List.of(ItemMapper.toItemDto(item, 2.5));
 
-        when(itemService.searchItem(anyString(), anyInt(), anyInt())).thenReturn(itemList);
+        when(itemService.searchItem(anyString(), anyInt(), anyInt())).thenReturn(new ItemSearchPage(itemList, true));
 
         mockMvc.perform(get("/items/search")
                         .contentType(MediaType.APPLICATION_JSON)
@@ -168,7 +171,74 @@ class ItemControllerTest {
                         .param("size", "10"))
                 .andExpect(status().isOk())
                 .andExpect(jsonPath("$[0].description").value(itemList.get(0).getDescription()))
-                .andExpect(jsonPath("$[0].name").value(itemList.get(0).getName()));
+                .andExpect(jsonPath("$[0].name").value(itemList.get(0).getName()))
+                .andExpect(jsonPath("$[0].score").value(2.5))
+                .andExpect(header().string("X-Has-More", "true"));
+    }
+
+    @SneakyThrows
+    @Test
+    void searchItem_whenFuzzy_thenUseFuzzySearch() {
+        when(itemService.searchItemFuzzy(anyString(), anyInt(), anyInt()))
+                .thenReturn(new ItemSearchPage(List.of(ItemMapper.toItemDto(item)), false));
+
+        mockMvc.perform(get("/items/search")
+                        .accept(MediaType.APPLICATION_JSON)
+                        .header(USER_ID, "1")
+                        .param("text", "удобнй")
+                        .param("fuzzy", "true"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].name").value(item.getName()))
+                .andExpect(header().string("X-Has-More", "false"));
+        verify(itemService, never()).searchItem(anyString(), anyInt(), anyInt());
+    }
+
+    @SneakyThrows
+    @Test
+    void getComments_whenNextPageExists_thenReturnNextCursorHeader() {
+        CommentDto commentDto = CommentDto.builder()
+                .id(1L)
+                .text("отличный стул")
+                .authorName(user.getName())
+                .created(LocalDateTime.now())
+                .build();
+        when(itemService.getComments(1L, item.getId(), "abc", 1))
+                .thenReturn(new CursorPage<>(List.of(commentDto), "def"));
+
+        mockMvc.perform(get("/items/{itemId}/comments", item.getId())
+                        .accept(MediaType.APPLICATION_JSON)
+                        .header(USER_ID, "1")
+                        .param("cursor", "abc")
+                        .param("size", "1"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].text").value(commentDto.getText()))
+                .andExpect(header().string("X-Next-Cursor", "def"));
+    }
+
+    @SneakyThrows
+    @Test
+    void getComments_whenLastPage_thenOmitNextCursorHeader() {
+        when(itemService.getComments(1L, item.getId(), null, 10)).thenReturn(new CursorPage<>(List.of(), null));
+
+        mockMvc.perform(get("/items/{itemId}/comments", item.getId())
+                        .accept(MediaType.APPLICATION_JSON)
+                        .header(USER_ID, "1"))
+                .andExpect(status().isOk())
+                .andExpect(header().doesNotExist("X-Next-Cursor"));
+    }
+
+    @SneakyThrows
+    @Test
+    void suggestItemNames_whenPrefixGiven_thenReturnSuggestions() {
+        when(itemService.suggestItemNames("сту", 5)).thenReturn(List.of("стул", "стулья"));
+
+        mockMvc.perform(get("/items/suggest")
+                        .accept(MediaType.APPLICATION_JSON)
+                        .param("prefix", "сту")
+                        .param("size", "5"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0]").value("стул"))
+                .andExpect(jsonPath("$[1]").value("стулья"));
     }
 
     @SneakyThrows
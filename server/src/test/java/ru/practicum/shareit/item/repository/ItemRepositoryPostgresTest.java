@@ -0,0 +1,85 @@
+package ru.practicum.shareit.item.repository;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfEnvironmentVariable;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.user.model.User;
+
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+// tsvector и pg_trgm есть только в PostgreSQL, поэтому тест запускается против отдельной базы,
+// адрес которой задан в SHAREIT_TEST_POSTGRES_URL. schema.sql пересоздаёт таблицы, рабочую базу указывать нельзя
+@DataJpaTest(properties = {
+        "spring.datasource.driverClassName=org.postgresql.Driver",
+        "spring.datasource.url=${SHAREIT_TEST_POSTGRES_URL}",
+        "spring.datasource.username=${SHAREIT_TEST_POSTGRES_USER:kitty}",
+        "spring.datasource.password=${SHAREIT_TEST_POSTGRES_PASSWORD:purrrrrr}",
+        "spring.sql.init.platform=postgresql",
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.PostgreSQL10Dialect"})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@EnabledIfEnvironmentVariable(named = "SHAREIT_TEST_POSTGRES_URL", matches = ".+")
+class ItemRepositoryPostgresTest {
+    @Autowired
+    private ItemRepository itemRepository;
+    @Autowired
+    private TestEntityManager entityManager;
+    private Item drill;
+    private Item screwdriver;
+
+    @BeforeEach
+    void setUp() {
+        User owner = entityManager.persist(User.builder()
+                .email("owner@mail.ru")
+                .name("owner")
+                .build());
+        drill = entityManager.persist(item(owner, "Дрель ударная", "мощная дрель", true));
+        screwdriver = entityManager.persist(item(owner, "Шуруповёрт", "может работать как дрель", true));
+        entityManager.persist(item(owner, "Стул", "деревянный", true));
+        entityManager.persist(item(owner, "Дрель старая", "сломана", false));
+        entityManager.flush();
+    }
+
+    @Test
+    void searchIdsRanked_whenWordInNameAndDescription_thenRankNameMatchesFirst() {
+        assertEquals(List.of(drill.getId(), screwdriver.getId()), ids(itemRepository.searchIdsRanked("ДРЕЛЬ", 10, 0)));
+    }
+
+    @Test
+    void searchIdsRanked_whenOffsetGiven_thenSkipHigherRanked() {
+        assertEquals(List.of(screwdriver.getId()), ids(itemRepository.searchIdsRanked("дрель", 1, 1)));
+    }
+
+    @Test
+    void searchIdsRanked_whenOnlySubstringMatches_thenFindByTrigramPredicate() {
+        assertEquals(List.of(screwdriver.getId()), ids(itemRepository.searchIdsRanked("шуруп", 10, 0)));
+    }
+
+    @Test
+    void searchIdsFuzzy_whenWordHasTypo_thenFindByWordSimilarity() {
+        assertEquals(List.of(screwdriver.getId()), ids(itemRepository.searchIdsFuzzy("шуруповрт", 10, 0)));
+        assertEquals(List.of(drill.getId(), screwdriver.getId()), ids(itemRepository.searchIdsFuzzy("дрель", 10, 0)));
+    }
+
+    private List<Long> ids(List<Number> ids) {
+        return ids.stream()
+                .map(Number::longValue)
+                .collect(Collectors.toList());
+    }
+
+    private Item item(User owner, String name, String description, boolean available) {
+        return Item.builder()
+                .name(name)
+                .description(description)
+                .available(available)
+                .owner(owner)
+                .build();
+    }
+}
@@ -5,6 +5,7 @@ import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
 import org.springframework.data.domain.PageRequest;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.request.ItemRequestRepository;
@@ -25,6 +26,8 @@ class ItemRepositoryTest {
     private UserRepository userRepository;
     @Autowired
     private ItemRequestRepository itemRequestRepository;
+    @Autowired
+    private TestEntityManager entityManager;
     private Item item;
     private User user;
     private User requestor;
@@ -66,6 +69,39 @@ class ItemRepositoryTest {
         assertTrue(itemList.contains(item));
     }
 
+    @Test
+    void incrementCommentCount() {
+        itemRepository.incrementCommentCount(item.getId(), 1);
+        itemRepository.incrementCommentCount(item.getId(), 2);
+        entityManager.clear();
+
+        assertEquals(3, itemRepository.findById(item.getId()).orElseThrow().getCommentCount());
+    }
+
+    @Test
+    void lockByIds() {
+        entityManager.flush();
+
+        List<Number> locked = itemRepository.lockByIds(List.of(item.getId(), item.getId() + 1000));
+
+        assertEquals(1, locked.size());
+        assertEquals(item.getId(), locked.get(0).longValue());
+    }
+
+    @Test
+    void save_whenItemUpdated_thenKeepCommentCount() {
+        itemRepository.incrementCommentCount(item.getId(), 1);
+        entityManager.clear();
+
+        item.setName("новое имя");
+        itemRepository.saveAndFlush(item);
+        entityManager.clear();
+
+        Item updated = itemRepository.findById(item.getId()).orElseThrow();
+        assertEquals("новое имя", updated.getName());
+        assertEquals(1, updated.getCommentCount());
+    }
+
     @Test
     void findAllByRequest() {
         List<Item> itemList = itemRepository.findAllByRequest(request);
@@ -74,11 +110,11 @@ class ItemRepositoryTest {
     }
 
     @Test
-    void searchWithPagination() {
-        String text = "новая вещь";
-        List<Item> itemList = itemRepository.searchWithPagination(text, PageRequest.of(0, 5));
-        assertEquals(1, itemList.size());
-        assertEquals(text, itemList.get(0).getDescription());
+    void searchIds() {
+        List<Number> ids = itemRepository.searchIds("НОВАЯ", 5, 0);
+        assertEquals(1, ids.size());
+        assertEquals(item.getId(), ids.get(0).longValue());
+        assertTrue(itemRepository.searchIds("НОВАЯ", 5, 1).isEmpty());
     }
 
     @AfterEach
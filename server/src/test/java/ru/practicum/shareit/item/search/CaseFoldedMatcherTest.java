@@ -0,0 +1,63 @@
+package ru.practicum.shareit.item.search;
+
+import com.sun.management.ThreadMXBean;
+import org.junit.jupiter.api.Test;
+
+import java.lang.management.ManagementFactory;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CaseFoldedMatcherTest {
+
+    @Test
+    void matches_whenSubstringInAnyCase_thenReturnTrue() {
+        CaseFoldedMatcher matcher = new CaseFoldedMatcher("ДрЕлЬ");
+
+        assertTrue(matcher.matches(CaseFoldedMatcher.fold("Аккумуляторная дрель")));
+        assertTrue(matcher.matches(CaseFoldedMatcher.fold("ДРЕЛЬ")));
+        assertFalse(matcher.matches(CaseFoldedMatcher.fold("дрел")));
+        assertFalse(matcher.matches(CaseFoldedMatcher.fold("Отвертка")));
+    }
+
+    @Test
+    void matches_whenPatternRepeatsCharacters_thenFindLateOccurrence() {
+        CaseFoldedMatcher matcher = new CaseFoldedMatcher("abab");
+
+        assertTrue(matcher.matches(CaseFoldedMatcher.fold("aabaABAB")));
+        assertFalse(matcher.matches(CaseFoldedMatcher.fold("abaaba")));
+    }
+
+    @Test
+    void matches_whenScanningCatalog_thenAllocateNothingPerItem() {
+        if (!(ManagementFactory.getThreadMXBean() instanceof ThreadMXBean)) {
+            return;
+        }
+        ThreadMXBean threadBean = (ThreadMXBean) ManagementFactory.getThreadMXBean();
+        char[][] catalog = new char[10_000][];
+        for (int i = 0; i < catalog.length; i++) {
+            catalog[i] = CaseFoldedMatcher.fold("Вещь номер " + i + " в отличном состоянии");
+        }
+        CaseFoldedMatcher matcher = new CaseFoldedMatcher("ДРЕЛЬ");
+        int matches = scan(matcher, catalog);
+
+        long threadId = Thread.currentThread().getId();
+        long before = threadBean.getThreadAllocatedBytes(threadId);
+        for (int round = 0; round < 10; round++) {
+            matches += scan(matcher, catalog);
+        }
+        long allocated = threadBean.getThreadAllocatedBytes(threadId) - before;
+
+        assertEquals(0, matches);
+        assertTrue(allocated < catalog.length, "выделено байт на горячем пути: " + allocated);
+    }
+
+    private int scan(CaseFoldedMatcher matcher, char[][] catalog) {
+        int matches = 0;
+        for (char[] text : catalog) {
+            if (matcher.matches(text)) {
+                matches++;
+            }
+        }
+        return matches;
+    }
+}
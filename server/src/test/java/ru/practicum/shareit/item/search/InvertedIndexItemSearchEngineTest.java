@@ -0,0 +1,110 @@
+package ru.practicum.shareit.item.search;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import ru.practicum.shareit.item.model.Item;
+
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class InvertedIndexItemSearchEngineTest {
+
+    private InvertedIndexItemSearchEngine engine;
+
+    @BeforeEach
+    void setUp() {
+        engine = new InvertedIndexItemSearchEngine();
+        engine.index(List.of(
+                item(1L, "Дрель", "Аккумуляторная дрель", true),
+                item(2L, "Отвертка", "Аккумуляторная отвертка", true),
+                item(3L, "Стул", "удобный стул", false)));
+    }
+
+    @Test
+    void search_whenTokenMatches_thenReturnAvailableItemIds() {
+        assertEquals(List.of(1L, 2L), ids(engine.search("аккУМУляторная", 0, 10)));
+        assertTrue(engine.search("стул", 0, 10).isEmpty());
+    }
+
+    @Test
+    void search_whenSeveralTokens_thenReturnIntersection() {
+        assertEquals(List.of(2L), ids(engine.search("аккумуляторная ОТВЕРТКА", 0, 10)));
+    }
+
+    @Test
+    void search_whenPrefix_thenReturnMatches() {
+        assertEquals(List.of(1L), ids(engine.search("дре", 0, 10)));
+    }
+
+    @Test
+    void search_whenPaged_thenReturnWindow() {
+        assertEquals(List.of(2L), ids(engine.search("аккумуляторная", 1, 10)));
+        assertEquals(List.of(1L), ids(engine.search("аккумуляторная", 0, 1)));
+    }
+
+    @Test
+    void search_whenNameMatches_thenRankAboveDescriptionMatch() {
+        engine.index(List.of(
+                item(4L, "Набор бит", "насадки на дрель и шуруповерт", true),
+                item(5L, "Дрель", "компактная", true)));
+
+        List<ItemSearchHit> hits = engine.search("дрель", 0, 10);
+
+        assertEquals(List.of(1L, 5L, 4L), ids(hits));
+        assertTrue(hits.get(0).getScore() > hits.get(1).getScore());
+        assertTrue(hits.get(1).getScore() > hits.get(2).getScore());
+    }
+
+    @Test
+    void search_whenMoreMatchesThanWindow_thenKeepOnlyTopRanked() {
+        for (long id = 10; id < 60; id++) {
+            engine.index(item(id, "Стол " + id, "деревянный", true));
+        }
+        engine.index(item(100L, "Стол", "стол раскладной", true));
+
+        assertEquals(List.of(100L), ids(engine.search("стол", 0, 1)));
+        assertEquals(List.of(10L, 11L), ids(engine.search("стол", 1, 2)));
+    }
+
+    @Test
+    void searchFuzzy_whenTypo_thenReturnCloseMatches() {
+        assertTrue(engine.search("отвёртка", 0, 10).isEmpty());
+        assertEquals(List.of(2L), ids(engine.searchFuzzy("отвёртка", 0, 10)));
+        assertEquals(List.of(1L, 2L), ids(engine.searchFuzzy("акумуляторная", 0, 10)));
+        assertTrue(engine.searchFuzzy("дрл", 0, 10).isEmpty());
+    }
+
+    @Test
+    void searchFuzzy_whenExactAndTypoMatches_thenRankExactHigher() {
+        engine.index(item(4L, "Дрэль", "старая", true));
+
+        assertEquals(List.of(4L, 1L), ids(engine.searchFuzzy("дрэль", 0, 10)));
+    }
+
+    @Test
+    void index_whenItemUpdated_thenOldTokensRemoved() {
+        engine.index(item(1L, "Перфоратор", "мощный", true));
+        assertTrue(engine.search("дрель", 0, 10).isEmpty());
+        assertEquals(List.of(1L), ids(engine.search("перфоратор", 0, 10)));
+
+        engine.index(item(1L, "Перфоратор", "мощный", false));
+        assertTrue(engine.search("перфоратор", 0, 10).isEmpty());
+    }
+
+    private List<Long> ids(List<ItemSearchHit> hits) {
+        return hits.stream()
+                .map(ItemSearchHit::getItemId)
+                .collect(Collectors.toList());
+    }
+
+    private Item item(long id, String name, String description, boolean available) {
+        return Item.builder()
+                .id(id)
+                .name(name)
+                .description(description)
+                .available(available)
+                .build();
+    }
+}
@@ -0,0 +1,126 @@
+package ru.practicum.shareit.item.search;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.ItemRepository;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ItemIndexerTest {
+    @Mock
+    private ItemRepository itemRepository;
+    @Mock
+    private SearchResultCache searchResultCache;
+
+    private RecordingIndex index;
+    private ItemIndexer itemIndexer;
+
+    @BeforeEach
+    void setUp() {
+        index = new RecordingIndex();
+        itemIndexer = new ItemIndexer(itemRepository, List.of(index), searchResultCache);
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    void index_whenNoTransaction_thenIndexImmediately() {
+        Item item = item(1L, "Дрель");
+
+        itemIndexer.index(item);
+
+        assertSame(item, index.items.get(1L));
+        verify(searchResultCache).invalidate(item, null);
+    }
+
+    @Test
+    void index_whenInTransaction_thenIndexOnlyAfterCommit() {
+        TransactionSynchronizationManager.initSynchronization();
+        Item item = item(1L, "Дрель");
+
+        itemIndexer.index(item);
+
+        assertTrue(index.items.isEmpty());
+        verifyNoInteractions(searchResultCache);
+        TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+        assertSame(item, index.items.get(1L));
+    }
+
+    @Test
+    void index_whenTransactionRolledBack_thenKeepIndexUnchanged() {
+        TransactionSynchronizationManager.initSynchronization();
+
+        itemIndexer.index(item(1L, "Дрель"));
+        TransactionSynchronizationManager.getSynchronizations()
+                .forEach(synchronization -> synchronization.afterCompletion(TransactionSynchronization.STATUS_ROLLED_BACK));
+
+        assertTrue(index.items.isEmpty());
+    }
+
+    @Test
+    void load_whenItemUpdatedWhileLoading_thenKeepUpdatedItem() {
+        Item stale = item(1L, "Дрель");
+        Item updated = item(1L, "Перфоратор");
+        when(itemRepository.findAll(any(Pageable.class))).thenAnswer(invocation -> {
+            // изменение вещи фиксируется после того, как страница уже прочитана
+            itemIndexer.index(updated);
+            return new PageImpl<>(List.of(stale, item(2L, "Стул")));
+        });
+
+        itemIndexer.load();
+
+        assertSame(updated, index.items.get(1L));
+        assertEquals("Стул", index.items.get(2L).getName());
+    }
+
+    @Test
+    void load_whenFinished_thenLaterUpdatesReplaceItems() {
+        when(itemRepository.findAll(any(Pageable.class))).thenReturn(new PageImpl<>(List.of(item(1L, "Дрель"))));
+        itemIndexer.load();
+        Item updated = item(1L, "Перфоратор");
+
+        itemIndexer.index(updated);
+
+        assertSame(updated, index.items.get(1L));
+    }
+
+    private Item item(long id, String name) {
+        return Item.builder()
+                .id(id)
+                .name(name)
+                .description("описание")
+                .available(true)
+                .build();
+    }
+
+    private static final class RecordingIndex implements ItemIndex {
+        private final Map<Long, Item> items = new HashMap<>();
+
+        @Override
+        public void index(Collection<Item> batch) {
+            batch.forEach(item -> items.put(item.getId(), item));
+        }
+    }
+}
@@ -0,0 +1,60 @@
+package ru.practicum.shareit.item.search;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import ru.practicum.shareit.item.model.Item;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ItemNameSuggesterTest {
+
+    private ItemNameSuggester suggester;
+
+    @BeforeEach
+    void setUp() {
+        suggester = new ItemNameSuggester();
+        suggester.index(List.of(
+                item(1L, "Дрель ударная", true),
+                item(2L, "Дрель аккумуляторная", true),
+                item(3L, "Дрезина", true),
+                item(4L, "Диван", false)));
+    }
+
+    @Test
+    void suggest_whenPrefixMatches_thenReturnMostPopularFirst() {
+        assertEquals(List.of("дрель", "дрезина"), suggester.suggest("Дре", 10));
+        assertEquals(List.of("дрель"), suggester.suggest("дре", 1));
+        assertEquals(List.of("дрезина"), suggester.suggest("дрез", 10));
+    }
+
+    @Test
+    void suggest_whenNothingMatches_thenReturnEmptyList() {
+        assertTrue(suggester.suggest("ди", 10).isEmpty());
+        assertTrue(suggester.suggest("дрелька", 10).isEmpty());
+        assertTrue(suggester.suggest(" ", 10).isEmpty());
+    }
+
+    @Test
+    void index_whenItemChangedOrUnavailable_thenSuggestionsUpdated() {
+        suggester.index(item(3L, "Диван", true));
+        assertEquals(List.of("дрель"), suggester.suggest("дре", 10));
+        assertEquals(List.of("диван"), suggester.suggest("ди", 10));
+
+        suggester.index(item(1L, "Дрель ударная", false));
+        suggester.index(item(2L, "Дрель аккумуляторная", false));
+        assertTrue(suggester.suggest("д", 10).contains("диван"));
+        assertFalse(suggester.suggest("д", 10).contains("дрель"));
+        assertTrue(suggester.suggest("у", 10).isEmpty());
+    }
+
+    private Item item(long id, String name, boolean available) {
+        return Item.builder()
+                .id(id)
+                .name(name)
+                .description(name)
+                .available(available)
+                .build();
+    }
+}
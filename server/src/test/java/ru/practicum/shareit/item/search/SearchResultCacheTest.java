@@ -0,0 +1,124 @@
+package ru.practicum.shareit.item.search;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import ru.practicum.shareit.item.model.Item;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SearchResultCacheTest {
+
+    private MeterRegistry meterRegistry;
+    private SearchResultCache cache;
+    private AtomicInteger loads;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        cache = new SearchResultCache(meterRegistry, true, 1024 * 1024);
+        loads = new AtomicInteger();
+    }
+
+    @Test
+    void getOrLoad_whenSameQueryRepeated_thenLoadOnceAndCountHit() {
+        assertEquals(1L, cache.getOrLoad("Дрель", 0, 10, () -> load(1L)).get(0).getItemId());
+        assertEquals(1L, cache.getOrLoad("дрель", 0, 10, () -> load(2L)).get(0).getItemId());
+        cache.getOrLoad("дрель", 10, 10, () -> load());
+
+        assertEquals(2, loads.get());
+        assertEquals(1.0, meterRegistry.get("cache.gets").tag("result", "hit").counter().count(), 0.0);
+        assertEquals(2.0, meterRegistry.get("cache.gets").tag("result", "miss").counter().count(), 0.0);
+    }
+
+    @Test
+    void invalidate_whenItemTokensIntersectQuery_thenDropOnlyMatchingEntries() {
+        cache.getOrLoad("дрель", 0, 10, () -> load(1L));
+        cache.getOrLoad("стул", 0, 10, () -> load(2L));
+
+        cache.invalidate(item(3L, "Дрель ударная", "мощная"));
+
+        assertEquals(1, cache.size());
+        cache.getOrLoad("стул", 0, 10, () -> load(2L));
+        assertEquals(2, loads.get());
+    }
+
+    @Test
+    void invalidate_whenCachedItemChanged_thenDropEntriesContainingIt() {
+        cache.getOrLoad("дрель", 0, 10, () -> load(1L));
+
+        cache.invalidate(item(1L, "Перфоратор", "мощный"));
+
+        assertEquals(0, cache.size());
+    }
+
+    @Test
+    void invalidate_whenItemRenamedOutOfCachedQuery_thenDropPagesAfterIt() {
+        // вещь 1 была на первой странице, закэширована только вторая
+        cache.getOrLoad("дрель", 10, 10, () -> load(11L, 12L));
+
+        cache.invalidate(item(1L, "Перфоратор", "мощный"), item(1L, "Дрель", "мощная"));
+
+        assertEquals(0, cache.size());
+    }
+
+    @Test
+    void invalidate_whenRankedPageCached_thenDropItOnAnyWrite() {
+        cache.getOrLoad("дрель", 0, 10, () -> List.of(new ItemSearchHit(1L, 2.5)));
+        cache.getOrLoad("стул", 0, 10, () -> load(2L));
+
+        cache.invalidate(item(3L, "Диван", "угловой"));
+
+        assertEquals(1, cache.size());
+        cache.getOrLoad("стул", 0, 10, () -> load(2L));
+        assertEquals(1, loads.get());
+    }
+
+    @Test
+    void getOrLoad_whenWriteHappensDuringLoad_thenResultNotCached() {
+        cache.getOrLoad("дрель", 0, 10, () -> {
+            cache.invalidate(item(5L, "Отвертка", "крестовая"));
+            return load(1L);
+        });
+
+        assertEquals(0, cache.size());
+    }
+
+    @Test
+    void getOrLoad_whenCacheFull_thenEvictLeastRecentlyUsed() {
+        meterRegistry = new SimpleMeterRegistry();
+        cache = new SearchResultCache(meterRegistry, true, 350);
+        cache.getOrLoad("дрель", 0, 10, () -> load(1L));
+        cache.getOrLoad("стул", 0, 10, () -> load(2L));
+        cache.getOrLoad("дрель", 0, 10, () -> load(1L));
+        cache.getOrLoad("диван", 0, 10, () -> load(3L));
+
+        assertEquals(2, cache.size());
+        assertTrue(cache.sizeInBytes() <= 350);
+        assertEquals(1.0, meterRegistry.get("cache.evictions").counter().count(), 0.0);
+        cache.getOrLoad("дрель", 0, 10, () -> load(1L));
+        assertEquals(3, loads.get());
+    }
+
+    private List<ItemSearchHit> load(Long... ids) {
+        loads.incrementAndGet();
+        return Arrays.stream(ids)
+                .map(id -> new ItemSearchHit(id, null))
+                .collect(Collectors.toList());
+    }
+
+    private Item item(long id, String name, String description) {
+        return Item.builder()
+                .id(id)
+                .name(name)
+                .description(description)
+                .available(true)
+                .build();
+    }
+}
@@ -0,0 +1,84 @@
+package ru.practicum.shareit.item.search;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import ru.practicum.shareit.item.model.Item;
+
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SegmentedItemSearchEngineTest {
+
+    private static final long SECOND_SEGMENT_ID = SegmentedItemSearchEngine.SEGMENT_SIZE + 1L;
+    private static final long THIRD_SEGMENT_ID = 2L * SegmentedItemSearchEngine.SEGMENT_SIZE + 5L;
+
+    private SegmentedItemSearchEngine engine;
+
+    @BeforeEach
+    void setUp() {
+        engine = new SegmentedItemSearchEngine(4);
+        engine.index(List.of(
+                item(THIRD_SEGMENT_ID, "Дрель", "Ударная дрель", true),
+                item(1L, "Дрель", "Аккумуляторная дрель", true),
+                item(2L, "Отвертка", "Аккумуляторная отвертка", true),
+                item(SECOND_SEGMENT_ID, "Стул", "удобный стул", false)));
+    }
+
+    @AfterEach
+    void tearDown() {
+        engine.shutdown();
+    }
+
+    @Test
+    void search_whenSubstringMatches_thenReturnIdsAcrossSegmentsInOrder() {
+        assertEquals(List.of(1L, THIRD_SEGMENT_ID), ids(engine.search("ДРЕЛ", 0, 10)));
+        assertEquals(List.of(1L, 2L), ids(engine.search("аккумулятор", 0, 10)));
+        assertTrue(engine.search("стул", 0, 10).isEmpty());
+    }
+
+    @Test
+    void search_whenPaged_thenReturnWindow() {
+        assertEquals(List.of(THIRD_SEGMENT_ID), ids(engine.search("дрель", 1, 10)));
+        assertEquals(List.of(1L), ids(engine.search("дрель", 0, 1)));
+        assertTrue(engine.search("дрель", 5, 10).isEmpty());
+    }
+
+    @Test
+    void searchFuzzy_whenWordsHaveTypos_thenMatchWithinAllowedDistance() {
+        assertTrue(engine.search("дрэль", 0, 10).isEmpty());
+        assertEquals(List.of(1L, THIRD_SEGMENT_ID), ids(engine.searchFuzzy("дрэль", 0, 10)));
+        assertEquals(List.of(1L, 2L), ids(engine.searchFuzzy("акумуляторная", 0, 10)));
+        assertEquals(List.of(2L), ids(engine.searchFuzzy("отвертк акумуляторная", 0, 10)));
+        assertTrue(engine.searchFuzzy("дрп", 0, 10).isEmpty());
+    }
+
+    @Test
+    void index_whenItemUpdated_thenNewVersionPublished() {
+        engine.index(item(SECOND_SEGMENT_ID, "Стул", "удобный стул", true));
+        engine.index(item(1L, "Перфоратор", "мощный", true));
+
+        assertEquals(List.of(SECOND_SEGMENT_ID), ids(engine.search("стул", 0, 10)));
+        assertEquals(List.of(THIRD_SEGMENT_ID), ids(engine.search("дрель", 0, 10)));
+
+        engine.index(item(1L, "Перфоратор", "мощный", false));
+        assertTrue(engine.search("перфоратор", 0, 10).isEmpty());
+    }
+
+    private List<Long> ids(List<ItemSearchHit> hits) {
+        return hits.stream()
+                .map(ItemSearchHit::getItemId)
+                .collect(Collectors.toList());
+    }
+
+    private Item item(long id, String name, String description, boolean available) {
+        return Item.builder()
+                .id(id)
+                .name(name)
+                .description(description)
+                .available(available)
+                .build();
+    }
+}
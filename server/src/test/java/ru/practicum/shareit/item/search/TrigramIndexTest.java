@@ -0,0 +1,49 @@
+package ru.practicum.shareit.item.search;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TrigramIndexTest {
+
+    private TrigramIndex index;
+
+    @BeforeEach
+    void setUp() {
+        index = new TrigramIndex();
+        index.add("дрель");
+        index.add("отвертка");
+        index.add("перфоратор");
+    }
+
+    @Test
+    void distance_whenWithinBound_thenReturnEditCount() {
+        assertEquals(0, TrigramIndex.distance("дрель", "дрель", 2));
+        assertEquals(1, TrigramIndex.distance("дрэль", "дрель", 2));
+        assertEquals(1, TrigramIndex.distance("перфоратр", "перфоратор", 2));
+        assertEquals(2, TrigramIndex.distance("отверткаа", "отвортка", 2));
+    }
+
+    @Test
+    void distance_whenOverBound_thenReturnBoundPlusOne() {
+        assertEquals(2, TrigramIndex.distance("дрель", "стул", 1));
+        assertEquals(3, TrigramIndex.distance("перфоратор", "пер", 2));
+    }
+
+    @Test
+    void similar_whenTypo_thenReturnTermsWithinDistance() {
+        assertEquals(Map.of("дрель", 1), index.similar("дрэль", 1));
+        assertEquals(Map.of("перфоратор", 1), index.similar("перфоратр", 2));
+        assertTrue(index.similar("стул", 1).isEmpty());
+    }
+
+    @Test
+    void remove_whenTermRemoved_thenNotReturned() {
+        index.remove("дрель");
+
+        assertTrue(index.similar("дрэль", 1).isEmpty());
+    }
+}
@@ -0,0 +1,167 @@
+package ru.practicum.shareit.item.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+import ru.practicum.shareit.booking.enums.BookingStatus;
+import ru.practicum.shareit.booking.model.ItemBookingSummary;
+import ru.practicum.shareit.booking.service.ItemBookingSummaryService;
+import ru.practicum.shareit.item.comment.CommentRepository;
+import ru.practicum.shareit.item.comment.CommentView;
+import ru.practicum.shareit.item.dto.ItemWithCommentsAndBookings;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.user.model.User;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ItemAssemblerTest {
+    @InjectMocks
+    private ItemAssembler itemAssembler;
+    @Mock
+    private ItemBookingSummaryService itemBookingSummaryService;
+    @Mock
+    private CommentRepository commentRepository;
+    @Spy
+    private ItemLookupExecutor itemLookupExecutor = new ItemLookupExecutor(false, 1, 1);
+
+    private User owner;
+    private Item chair;
+    private Item drill;
+
+    @BeforeEach
+    void setUp() {
+        owner = User.builder()
+                .id(1L)
+                .email("alex@yandex.ru")
+                .name("alex")
+                .build();
+        chair = item(1L, "стул");
+        drill = item(2L, "дрель");
+    }
+
+    @Test
+    void assemble_whenOwner_thenStitchBookingsAndCommentsById() {
+        User author = User.builder()
+                .id(5L)
+                .name("max")
+                .build();
+        when(itemBookingSummaryService.findByItemIds(List.of(1L, 2L))).thenReturn(Map.of(
+                1L, ItemBookingSummary.builder()
+                        .itemId(1L)
+                        .nextBookingId(12L)
+                        .nextBookerId(4L)
+                        .nextStatus(BookingStatus.WAITING)
+                        .build(),
+                2L, ItemBookingSummary.builder()
+                        .itemId(2L)
+                        .lastBookingId(11L)
+                        .lastBookerId(3L)
+                        .lastStatus(BookingStatus.APPROVED)
+                        .nextBookingId(13L)
+                        .nextBookerId(4L)
+                        .nextStatus(BookingStatus.REJECTED)
+                        .build()));
+        when(commentRepository.findNewestByItemIds(List.of(1L, 2L), 10)).thenReturn(List.of(
+                comment(2L, 7L, "отличная", author.getName())));
+
+        List<ItemWithCommentsAndBookings> items = itemAssembler.assemble(List.of(chair, drill), owner.getId());
+
+        assertEquals(2, items.size());
+        assertNull(items.get(0).getLastBooking());
+        assertEquals(12L, items.get(0).getNextBooking().getId());
+        assertTrue(items.get(0).getComments().isEmpty());
+        assertEquals(11L, items.get(1).getLastBooking().getId());
+        assertEquals(3L, items.get(1).getLastBooking().getBookerId());
+        assertNull(items.get(1).getNextBooking());
+        assertEquals("отличная", items.get(1).getComments().get(0).getText());
+    }
+
+    @Test
+    void assembleView_whenOwnerHasNextBooking_thenValidUntilNextStart() {
+        LocalDateTime nextStart = LocalDateTime.now().plusDays(1);
+        when(itemBookingSummaryService.findByItemIds(List.of(1L))).thenReturn(Map.of(
+                1L, ItemBookingSummary.builder()
+                        .itemId(1L)
+                        .nextBookingId(12L)
+                        .nextBookerId(4L)
+                        .nextStatus(BookingStatus.APPROVED)
+                        .nextStart(nextStart)
+                        .build()));
+        when(commentRepository.findNewestByItemIds(List.of(1L), 10)).thenReturn(List.of());
+
+        ItemView ownerView = itemAssembler.assembleView(chair, owner.getId());
+        ItemView otherView = itemAssembler.assembleView(chair, 99L);
+
+        assertEquals(12L, ownerView.getItem().getNextBooking().getId());
+        assertEquals(nextStart, ownerView.getValidUntil());
+        assertTrue(ownerView.isExpired(nextStart));
+        assertNull(otherView.getValidUntil());
+        assertFalse(otherView.isExpired(nextStart));
+    }
+
+    @Test
+    void assemble_whenNotOwner_thenSkipBookingSummaries() {
+        when(commentRepository.findNewestByItemIds(List.of(1L), 10)).thenReturn(List.of());
+
+        List<ItemWithCommentsAndBookings> items = itemAssembler.assemble(List.of(chair), 99L);
+
+        assertNull(items.get(0).getLastBooking());
+        assertNull(items.get(0).getNextBooking());
+        verifyNoInteractions(itemBookingSummaryService);
+    }
+
+    @Test
+    void assemble_whenNoItems_thenNoQueries() {
+        assertTrue(itemAssembler.assemble(List.of(), owner.getId()).isEmpty());
+        verifyNoInteractions(itemBookingSummaryService, commentRepository);
+    }
+
+    private CommentView comment(long itemId, long id, String text, String authorName) {
+        return new CommentView() {
+            @Override
+            public Long getItemId() {
+                return itemId;
+            }
+
+            @Override
+            public Long getId() {
+                return id;
+            }
+
+            @Override
+            public String getText() {
+                return text;
+            }
+
+            @Override
+            public String getAuthorName() {
+                return authorName;
+            }
+
+            @Override
+            public LocalDateTime getCreated() {
+                return LocalDateTime.now();
+            }
+        };
+    }
+
+    private Item item(long id, String name) {
+        return Item.builder()
+                .id(id)
+                .name(name)
+                .description(name)
+                .available(true)
+                .owner(owner)
+                .build();
+    }
+}
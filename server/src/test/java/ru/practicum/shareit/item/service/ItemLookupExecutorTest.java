@@ -0,0 +1,93 @@
+package ru.practicum.shareit.item.service;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import ru.practicum.shareit.exception.NotFoundException;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ItemLookupExecutorTest {
+
+    private ItemLookupExecutor executor;
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdown();
+    }
+
+    @Test
+    void submit_whenSequential_thenRunOnCallerThread() {
+        executor = new ItemLookupExecutor(false, 2, 2);
+        Thread caller = Thread.currentThread();
+
+        CompletableFuture<Thread> lookup = executor.submit(Thread::currentThread);
+
+        assertTrue(lookup.isDone());
+        assertSame(caller, ItemLookupExecutor.join(lookup));
+    }
+
+    @Test
+    void submit_whenParallel_thenRunLookupsConcurrently() {
+        executor = new ItemLookupExecutor(true, 2, 2);
+        CountDownLatch bothStarted = new CountDownLatch(2);
+
+        CompletableFuture<Boolean> first = executor.submit(() -> awaitOther(bothStarted));
+        CompletableFuture<Boolean> second = executor.submit(() -> awaitOther(bothStarted));
+
+        assertTrue(ItemLookupExecutor.join(first));
+        assertTrue(ItemLookupExecutor.join(second));
+    }
+
+    @Test
+    void submit_whenConnectionBudgetExhausted_thenLimitConcurrentLookups() {
+        executor = new ItemLookupExecutor(true, 4, 1);
+        AtomicInteger running = new AtomicInteger();
+        AtomicInteger maxRunning = new AtomicInteger();
+
+        CompletableFuture<?>[] lookups = new CompletableFuture<?>[4];
+        for (int i = 0; i < lookups.length; i++) {
+            lookups[i] = executor.submit(() -> {
+                maxRunning.accumulateAndGet(running.incrementAndGet(), Math::max);
+                sleep();
+                return running.decrementAndGet();
+            });
+        }
+        CompletableFuture.allOf(lookups).join();
+
+        assertEquals(1, maxRunning.get());
+    }
+
+    @Test
+    void join_whenLookupFailed_thenRethrowCause() {
+        executor = new ItemLookupExecutor(true, 1, 1);
+
+        CompletableFuture<Object> lookup = executor.submit(() -> {
+            throw new NotFoundException("Вещи с таким id = 1  не существует");
+        });
+
+        assertThrows(NotFoundException.class, () -> ItemLookupExecutor.join(lookup));
+    }
+
+    private static boolean awaitOther(CountDownLatch bothStarted) {
+        bothStarted.countDown();
+        try {
+            return bothStarted.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    private static void sleep() {
+        try {
+            TimeUnit.MILLISECONDS.sleep(20);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
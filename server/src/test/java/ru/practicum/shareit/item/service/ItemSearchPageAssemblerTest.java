@@ -0,0 +1,98 @@
+package ru.practicum.shareit.item.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.dto.ItemSearchPage;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.item.search.ItemSearchEngine;
+import ru.practicum.shareit.item.search.ItemSearchHit;
+import ru.practicum.shareit.item.search.SearchResultCache;
+import ru.practicum.shareit.user.model.User;
+
+import java.util.List;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ItemSearchPageAssemblerTest {
+    @InjectMocks
+    private ItemSearchPageAssembler itemSearchPageAssembler;
+    @Mock
+    private ItemSearchEngine itemSearchEngine;
+    @Mock
+    private SearchResultCache searchResultCache;
+    @Mock
+    private ItemRepository itemRepository;
+
+    private Item item;
+
+    @BeforeEach
+    void setUp() {
+        item = Item.builder()
+                .id(1L)
+                .name("стул")
+                .description("удобный стул")
+                .available(true)
+                .owner(User.builder().id(1L).build())
+                .build();
+    }
+
+    @Test
+    void search_whenInputValidValue_thenReturnPaginationValue() {
+        when(searchResultCache.getOrLoad(eq("удобный"), eq(1), eq(11), any()))
+                .thenAnswer(invocationOnMock -> invocationOnMock.<Supplier<List<ItemSearchHit>>>getArgument(3).get());
+        when(itemSearchEngine.search("удобный", 1, 11)).thenReturn(List.of(new ItemSearchHit(item.getId(), 1.5)));
+        when(itemRepository.findAllById(List.of(item.getId()))).thenReturn(List.of(item));
+
+        ItemSearchPage page = itemSearchPageAssembler.search("удобный", 1, 10);
+        List<ItemDto> actualItemList = page.getItems();
+
+        assertFalse(page.isHasMore());
+        assertEquals(1, actualItemList.size(), "некорректно отработал метод");
+        assertEquals(item.getId(), actualItemList.get(0).getId(), "некорректно отработал метод");
+        assertEquals(1.5, actualItemList.get(0).getScore(), "некорректно отработал метод");
+    }
+
+    @Test
+    void search_whenMoreHitsThanSize_thenReturnWindowAndHasMore() {
+        when(searchResultCache.getOrLoad(eq("удобный"), eq(0), eq(2), any()))
+                .thenAnswer(invocationOnMock -> invocationOnMock.<Supplier<List<ItemSearchHit>>>getArgument(3).get());
+        when(itemSearchEngine.search("удобный", 0, 2))
+                .thenReturn(List.of(new ItemSearchHit(item.getId(), 2.0), new ItemSearchHit(item.getId() + 1, 1.0)));
+        when(itemRepository.findAllById(List.of(item.getId()))).thenReturn(List.of(item));
+
+        ItemSearchPage page = itemSearchPageAssembler.search("удобный", 0, 1);
+
+        assertTrue(page.isHasMore());
+        assertEquals(1, page.getItems().size(), "некорректно отработал метод");
+        assertEquals(item.getId(), page.getItems().get(0).getId(), "некорректно отработал метод");
+    }
+
+    @Test
+    void search_whenTextBlank_thenReturnEmptyPage() {
+        ItemSearchPage page = itemSearchPageAssembler.search(" ", 0, 10);
+
+        assertTrue(page.getItems().isEmpty());
+        verifyNoInteractions(itemSearchEngine, searchResultCache, itemRepository);
+    }
+
+    @Test
+    void searchFuzzy_whenInputValidValue_thenBypassCache() {
+        when(itemSearchEngine.searchFuzzy("удобнй", 0, 11)).thenReturn(List.of(new ItemSearchHit(item.getId(), 0.7)));
+        when(itemRepository.findAllById(List.of(item.getId()))).thenReturn(List.of(item));
+
+        List<ItemDto> actualItemList = itemSearchPageAssembler.searchFuzzy("удобнй", 0, 10).getItems();
+
+        assertEquals(1, actualItemList.size(), "некорректно отработал метод");
+        assertEquals(item.getId(), actualItemList.get(0).getId(), "некорректно отработал метод");
+        verifyNoInteractions(searchResultCache);
+    }
+}
@@ -3,6 +3,7 @@ package ru.practicum.shareit.item.service;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
@@ -12,14 +13,20 @@ import org.springframework.data.domain.Sort;
 import ru.practicum.shareit.booking.dto.BookingShort;
 import ru.practicum.shareit.booking.enums.BookingStatus;
 import ru.practicum.shareit.booking.model.Booking;
-import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.booking.timeline.BookingTimelineCache;
 import ru.practicum.shareit.exception.NotFoundException;
+import ru.practicum.shareit.exception.ValidationException;
 import ru.practicum.shareit.item.comment.*;
 import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.dto.ItemSearchPage;
 import ru.practicum.shareit.item.dto.ItemWithCommentsAndBookings;
 import ru.practicum.shareit.item.mapper.ItemMapper;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.item.search.ItemIndexer;
+import ru.practicum.shareit.item.search.ItemNameSuggester;
+import ru.practicum.shareit.pagination.CursorPage;
+import ru.practicum.shareit.pagination.KeysetCursor;
 import ru.practicum.shareit.request.ItemRequestRepository;
 import ru.practicum.shareit.request.dto.ItemRequest;
 import ru.practicum.shareit.user.model.User;
@@ -29,6 +36,7 @@ import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
+import java.util.function.Supplier;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.*;
@@ -44,9 +52,21 @@ class ItemServiceImplTest {
     @Mock
     private CommentRepository commentRepository;
     @Mock
-    private BookingRepository bookingRepository;
+    private BookingTimelineCache bookingTimelineCache;
     @Mock
     private ItemRequestRepository itemRequestRepository;
+    @Mock
+    private ItemIndexer itemIndexer;
+    @Mock
+    private ItemNameSuggester itemNameSuggester;
+    @Mock
+    private ItemAssembler itemAssembler;
+    @Mock
+    private ItemSearchPageAssembler itemSearchPageAssembler;
+    @Mock
+    private ItemViewCache itemViewCache;
+    @Mock
+    private CommentWriteQueue commentWriteQueue;
 
     private ItemDto itemDto;
     private User user;
@@ -140,6 +160,10 @@ class ItemServiceImplTest {
 
         Item updateItem = itemService.updateItem(item.getId(), user.getId(), itemDto);
         assertEquals(user.getEmail(), updateItem.getOwner().getEmail(), "некорректно отработал метод");
+        ArgumentCaptor<Item> previous = ArgumentCaptor.forClass(Item.class);
+        verify(itemIndexer, times(1)).index(eq(updateItem), previous.capture());
+        assertEquals(item.getName(), previous.getValue().getName());
+        verify(itemViewCache).invalidate(item.getId());
         verify(itemRepository, times(1)).save(ItemMapper.toItemWithId(item.getId(), user, itemDto));
     }
 
@@ -170,6 +194,7 @@ class ItemServiceImplTest {
     @Test
     void getItem_whenItemFound_thenReturnItem() {
         when(itemRepository.findById(item.getId())).thenReturn(Optional.of(item));
+        loadItemViewsThroughCache();
 
         ItemWithCommentsAndBookings item1 = itemService.getItem(item.getId(), user.getId());
         assertNotNull(item1);
@@ -180,6 +205,7 @@ class ItemServiceImplTest {
     @Test
     void getItem_whenItemNotFound_thenReturnThrows() {
         when(itemRepository.findById(item.getId())).thenThrow(NotFoundException.class);
+        loadItemViewsThroughCache();
 
         assertThrows(NotFoundException.class, () -> itemService.getItem(item.getId(), user.getId()));
     }
@@ -211,11 +237,12 @@ class ItemServiceImplTest {
 
         when(userService.getUserById(user.getId())).thenReturn(user);
         when(itemRepository.findAllByOwnerId(user.getId(), pageable)).thenReturn(itemList);
+        when(itemAssembler.assemble(itemList, user.getId())).thenReturn(list);
 
         List<ItemWithCommentsAndBookings> item2 = itemService.getUserItems(user.getId(), 15, 10);
         assertFalse(item2.isEmpty());
         assertEquals(1, item2.size(), "некорректно отработал метод");
-        assertEquals("удобный стул", item2.get(0).getDescription(), "некорректно отработал метод");
+        assertEquals(list, item2, "некорректно отработал метод");
     }
 
     @Test
@@ -231,19 +258,26 @@ class ItemServiceImplTest {
     }
 
     @Test
-    void searchItem_whenInputValidValue_thenReturnPaginationValue() {
-        String text = "удобный";
-        Integer from = 1;
-        Integer size = 10;
-        List<Item> itemList = new ArrayList<>();
-        itemList.add(item);
+    void searchItem_whenCalled_thenDelegateToPageAssembler() {
+        ItemSearchPage expected = new ItemSearchPage(List.of(ItemMapper.toItemDto(item, 1.5)), false);
+        when(itemSearchPageAssembler.search("удобный", 1, 10)).thenReturn(expected);
+
+        assertSame(expected, itemService.searchItem("удобный", 1, 10));
+    }
 
-        when(itemRepository.findAll()).thenReturn(itemList);
+    @Test
+    void searchItemFuzzy_whenCalled_thenDelegateToPageAssembler() {
+        ItemSearchPage expected = new ItemSearchPage(List.of(ItemMapper.toItemDto(item, 0.7)), false);
+        when(itemSearchPageAssembler.searchFuzzy("удобнй", 0, 10)).thenReturn(expected);
 
-        List<Item> actualItemList = itemService.searchItem(text, from, size);
-        assertFalse(actualItemList.isEmpty());
-        assertEquals(1, actualItemList.size(), "некорректно отработал метод");
-        assertEquals(item, actualItemList.get(0), "некорректно отработал метод");
+        assertSame(expected, itemService.searchItemFuzzy("удобнй", 0, 10));
+    }
+
+    @Test
+    void suggestItemNames_whenPrefixGiven_thenReturnSuggestions() {
+        when(itemNameSuggester.suggest("сту", 5)).thenReturn(List.of("стул"));
+
+        assertEquals(List.of("стул"), itemService.suggestItemNames("сту", 5));
     }
 
     @Test
@@ -269,9 +303,9 @@ class ItemServiceImplTest {
 
         when(itemRepository.findById(item.getId())).thenReturn(Optional.of(item));
         when(userService.getUserById(user.getId())).thenReturn(user);
-        when(bookingRepository.findFirstByBookingUserIdAndItemIdAndEndIsBeforeOrderByEndDesc(any(Long.class),
-                any(Long.class), any(LocalDateTime.class))).thenReturn(booking);
-        when(commentRepository.save(any(Comment.class))).thenAnswer(invocationOnMock -> {
+        when(bookingTimelineCache.hasFinishedBooking(eq(item.getId()), eq(user.getId()), any(LocalDateTime.class)))
+                .thenReturn(true);
+        when(commentWriteQueue.write(any(Comment.class))).thenAnswer(invocationOnMock -> {
             comment.setId(1L);
             return comment;
         });
@@ -279,6 +313,24 @@ class ItemServiceImplTest {
         Comment newComment = itemService.addComment(user.getId(), item.getId(), commentDtoInput);
         assertFalse(newComment == null);
         assertEquals(commentDtoInput.getText(), newComment.getText(), "некорректно отработал метод");
+        verify(itemViewCache).invalidate(item.getId());
+    }
+
+    @Test
+    void addComment_whenBookingNotFinished_thenReturnThrows() {
+        CommentDtoInput commentDtoInput = CommentDtoInput.builder()
+                .text("отличная вещь, очень удобная в хозяйстве")
+                .build();
+
+        when(itemRepository.findById(item.getId())).thenReturn(Optional.of(item));
+        when(userService.getUserById(user.getId())).thenReturn(user);
+        when(bookingTimelineCache.hasFinishedBooking(eq(item.getId()), eq(user.getId()), any(LocalDateTime.class)))
+                .thenReturn(false);
+
+        assertThrows(ValidationException.class,
+                () -> itemService.addComment(user.getId(), item.getId(), commentDtoInput));
+        verify(commentWriteQueue, never()).write(any(Comment.class));
+        verify(itemViewCache, never()).invalidate(anyLong());
     }
 
     @Test
@@ -304,4 +356,65 @@ class ItemServiceImplTest {
 
         assertThrows(NotFoundException.class, () -> itemService.addComment(user.getId(), item.getId(), commentDtoInput));
     }
-}
\ No newline at end of file
+
+    @Test
+    void getComments_whenMoreCommentsThanSize_thenReturnNextCursor() {
+        LocalDateTime created = LocalDateTime.of(2024, 5, 10, 12, 0);
+        List<Comment> comments = List.of(
+                comment(3L, created.plusMinutes(2)),
+                comment(2L, created.plusMinutes(1)),
+                comment(1L, created));
+        when(userService.getUserById(user.getId())).thenReturn(user);
+        when(itemRepository.existsById(item.getId())).thenReturn(true);
+        when(commentRepository.findFirstPageByItemId(item.getId(), PageRequest.of(0, 3))).thenReturn(comments);
+
+        CursorPage<CommentDto> page = itemService.getComments(user.getId(), item.getId(), null, 2);
+
+        assertEquals(2, page.getItems().size());
+        assertEquals(3L, page.getItems().get(0).getId());
+        KeysetCursor next = KeysetCursor.decode(page.getNextCursor());
+        assertEquals(created.plusMinutes(1), next.getTimestamp());
+        assertEquals(2L, next.getId());
+    }
+
+    @Test
+    void getComments_whenCursorGiven_thenContinueAfterIt() {
+        LocalDateTime created = LocalDateTime.of(2024, 5, 10, 12, 0);
+        String cursor = new KeysetCursor(created.plusMinutes(1), 2L).encode();
+        when(userService.getUserById(user.getId())).thenReturn(user);
+        when(itemRepository.existsById(item.getId())).thenReturn(true);
+        when(commentRepository.findPageByItemIdAfter(item.getId(), created.plusMinutes(1), 2L, PageRequest.of(0, 3)))
+                .thenReturn(List.of(comment(1L, created)));
+
+        CursorPage<CommentDto> page = itemService.getComments(user.getId(), item.getId(), cursor, 2);
+
+        assertEquals(1, page.getItems().size());
+        assertNull(page.getNextCursor());
+    }
+
+    @Test
+    void getComments_whenItemNotFound_thenReturnThrows() {
+        when(userService.getUserById(user.getId())).thenReturn(user);
+        when(itemRepository.existsById(item.getId())).thenReturn(false);
+
+        assertThrows(NotFoundException.class, () -> itemService.getComments(user.getId(), item.getId(), null, 10));
+        verifyNoInteractions(commentRepository);
+    }
+
+    private Comment comment(long id, LocalDateTime created) {
+        return Comment.builder()
+                .id(id)
+                .text("комментарий " + id)
+                .item(item)
+                .author(user)
+                .created(created)
+                .build();
+    }
+
+    private void loadItemViewsThroughCache() {
+        when(itemViewCache.getOrLoad(anyLong(), anyLong(), any())).thenAnswer(invocationOnMock -> {
+            Supplier<Item> itemLoader = invocationOnMock.getArgument(2);
+            return ItemMapper.toItemWithTime(itemLoader.get(), null, null, new ArrayList<>());
+        });
+    }
+}
@@ -0,0 +1,140 @@
+package ru.practicum.shareit.item.service;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import ru.practicum.shareit.exception.NotFoundException;
+import ru.practicum.shareit.item.dto.ItemWithCommentsAndBookings;
+import ru.practicum.shareit.item.mapper.ItemMapper;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.user.model.User;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ItemViewCacheTest {
+    @Mock
+    private ItemAssembler itemAssembler;
+
+    private MeterRegistry meterRegistry;
+    private ItemViewCache cache;
+    private Item item;
+    private AtomicInteger itemLoads;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        cache = new ItemViewCache(itemAssembler, meterRegistry, true, 100);
+        item = Item.builder()
+                .id(1L)
+                .name("дрель")
+                .description("ударная дрель")
+                .available(true)
+                .owner(User.builder().id(1L).build())
+                .build();
+        itemLoads = new AtomicInteger();
+    }
+
+    @Test
+    void getOrLoad_whenSameViewRequestedTwice_thenLoadItemAndViewOnce() {
+        when(itemAssembler.assembleView(item, 2L)).thenReturn(view(null));
+
+        cache.getOrLoad(1L, 2L, this::loadItem);
+        ItemWithCommentsAndBookings cached = cache.getOrLoad(1L, 3L, this::loadItem);
+
+        assertEquals("дрель", cached.getName());
+        assertEquals(1, itemLoads.get());
+        verify(itemAssembler, times(1)).assembleView(any(Item.class), anyLong());
+        assertEquals(1.0, meterRegistry.get("cache.gets").tag("result", "hit").counter().count(), 0.0);
+    }
+
+    @Test
+    void getOrLoad_whenOwnerAndOtherUser_thenKeepSeparateViews() {
+        when(itemAssembler.assembleView(item, 1L)).thenReturn(view(null));
+        when(itemAssembler.assembleView(item, 2L)).thenReturn(view(null));
+
+        cache.getOrLoad(1L, 1L, this::loadItem);
+        cache.getOrLoad(1L, 2L, this::loadItem);
+
+        assertEquals(2, cache.size());
+        assertEquals(2, itemLoads.get());
+    }
+
+    @Test
+    void invalidate_whenViewCached_thenReloadOnNextRead() {
+        when(itemAssembler.assembleView(item, 1L)).thenReturn(view(null));
+        cache.getOrLoad(1L, 1L, this::loadItem);
+
+        cache.invalidate(1L);
+        cache.getOrLoad(1L, 1L, this::loadItem);
+
+        verify(itemAssembler, times(2)).assembleView(item, 1L);
+        assertEquals(1.0, meterRegistry.get("cache.invalidations").counter().count(), 0.0);
+    }
+
+    @Test
+    void getOrLoad_whenNextBookingStarted_thenReload() {
+        when(itemAssembler.assembleView(item, 1L))
+                .thenReturn(view(LocalDateTime.now().minusSeconds(1)))
+                .thenReturn(view(LocalDateTime.now().plusDays(1)));
+
+        cache.getOrLoad(1L, 1L, this::loadItem);
+        cache.getOrLoad(1L, 1L, this::loadItem);
+        cache.getOrLoad(1L, 1L, this::loadItem);
+
+        verify(itemAssembler, times(2)).assembleView(item, 1L);
+    }
+
+    @Test
+    void getOrLoad_whenItemNotFound_thenDoNotCacheFailure() {
+        assertThrows(NotFoundException.class, () -> cache.getOrLoad(1L, 1L, () -> {
+            throw new NotFoundException("Вещи с таким id = 1  не существует");
+        }));
+
+        assertEquals(0, cache.size());
+    }
+
+    @Test
+    void getOrLoad_whenConcurrentReaders_thenSingleLoaderRuns() throws Exception {
+        CountDownLatch loaderStarted = new CountDownLatch(1);
+        CountDownLatch releaseLoader = new CountDownLatch(1);
+        when(itemAssembler.assembleView(item, 2L)).thenAnswer(invocationOnMock -> {
+            loaderStarted.countDown();
+            releaseLoader.await(5, TimeUnit.SECONDS);
+            return view(null);
+        });
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            Future<ItemWithCommentsAndBookings> first = executor.submit(() -> cache.getOrLoad(1L, 2L, this::loadItem));
+            assertTrue(loaderStarted.await(5, TimeUnit.SECONDS));
+            Future<ItemWithCommentsAndBookings> second = executor.submit(() -> cache.getOrLoad(1L, 3L, this::loadItem));
+            Future<ItemWithCommentsAndBookings> third = executor.submit(() -> cache.getOrLoad(1L, 4L, this::loadItem));
+            releaseLoader.countDown();
+
+            assertSame(first.get(5, TimeUnit.SECONDS), second.get(5, TimeUnit.SECONDS));
+            assertSame(first.get(), third.get(5, TimeUnit.SECONDS));
+        } finally {
+            executor.shutdownNow();
+        }
+        verify(itemAssembler, times(1)).assembleView(item, 2L);
+    }
+
+    private Item loadItem() {
+        itemLoads.incrementAndGet();
+        return item;
+    }
+
+    private ItemView view(LocalDateTime validUntil) {
+        return new ItemView(ItemMapper.toItemWithTime(item, null, null, new ArrayList<>()), validUntil);
+    }
+}
@@ -0,0 +1,44 @@
+package ru.practicum.shareit.pagination;
+
+import org.junit.jupiter.api.Test;
+import ru.practicum.shareit.exception.ValidationException;
+
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class KeysetCursorTest {
+
+    @Test
+    void decode_whenEncoded_thenReturnSamePosition() {
+        KeysetCursor cursor = new KeysetCursor(LocalDateTime.of(2024, 5, 10, 12, 0, 1, 123456000), 42L);
+
+        String encoded = cursor.encode();
+
+        assertFalse(encoded.contains("="));
+        assertEquals(cursor, KeysetCursor.decode(encoded));
+    }
+
+    @Test
+    void constructor_whenNanoseconds_thenRoundToStoredMicroseconds() {
+        KeysetCursor cursor = new KeysetCursor(LocalDateTime.of(2024, 5, 10, 12, 0, 1, 123456789), 42L);
+
+        assertEquals(LocalDateTime.of(2024, 5, 10, 12, 0, 1, 123457000), cursor.getTimestamp());
+        assertEquals(cursor, KeysetCursor.decode(cursor.encode()));
+        assertEquals(cursor, KeysetCursor.decode(new KeysetCursor(LocalDateTime.of(2024, 5, 10, 12, 0, 1, 123456500),
+                42L).encode()));
+    }
+
+    @Test
+    void decode_whenBlank_thenReturnNull() {
+        assertNull(KeysetCursor.decode(null));
+        assertNull(KeysetCursor.decode(" "));
+    }
+
+    @Test
+    void decode_whenMalformed_thenThrowValidationException() {
+        assertThrows(ValidationException.class, () -> KeysetCursor.decode("не курсор"));
+        assertThrows(ValidationException.class, () -> KeysetCursor.decode(new KeysetCursor(LocalDateTime.now(), 1L)
+                .encode().substring(3)));
+    }
+}